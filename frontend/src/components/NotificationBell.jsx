@@ -24,12 +24,19 @@ const NotificationBell = () => {
     }, []);
 
     useEffect(() => {
-        if (currentUser) {
-            fetchUnreadCount();
-            const interval = setInterval(fetchUnreadCount, 10000); // Check every 10 seconds
-            return () => clearInterval(interval);
-        }
-    }, [currentUser]);
+        if (!currentUser) return;
+
+        // The server pushes new notifications and the unread count; EventSource reconnects by itself
+        const source = new EventSource(`http://localhost:8070/api/notifications/stream/${currentUser.id}`);
+        source.addEventListener('unread-count', (event) => {
+            setUnreadCount(JSON.parse(event.data).count);
+        });
+        source.addEventListener('notification', (event) => {
+            const notification = JSON.parse(event.data);
+            setNotifications(prev => [notification, ...prev.filter(notif => notif.id !== notification.id)]);
+        });
+        return () => source.close();
+    }, [currentUser?.id]);
 
     const fetchUnreadCount = async () => {
         if (!currentUser) return;
@@ -146,6 +153,11 @@ const NotificationBell = () => {
             <div className="flex flex-col">
                 <div className="flex items-center gap-2 text-base">
                     <span className="font-semibold text-blue-900">{notification.senderName}</span>
+                    {notification.actorCount > 1 && (
+                        <span className="text-blue-800 font-medium">
+                            and {notification.actorCountCapped ? 'over ' : ''}{notification.actorCount - 1} {notification.actorCount === 2 ? 'other' : 'others'}
+                        </span>
+                    )}
                     <span className="text-blue-800 font-medium">{actionText}</span>
                 </div>
                 {notification.type !== 'FOLLOW' && notification.postId && (
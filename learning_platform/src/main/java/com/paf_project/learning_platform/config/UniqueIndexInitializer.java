@@ -0,0 +1,82 @@
+package com.paf_project.learning_platform.config;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import com.paf_project.learning_platform.model.CommentLike;
+import com.paf_project.learning_platform.model.Like;
+
+import java.util.List;
+
+// Unique indexes on collections that may already hold duplicates written before the index existed.
+// Auto index creation would fail startup on the first duplicate, so these are created here, once the
+// extra copies are gone. Runs before the web server accepts requests.
+@Component
+public class UniqueIndexInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(UniqueIndexInitializer.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @PostConstruct
+    public void createUniqueIndexes() {
+        dedupeAndIndex(Like.class, "post_user", "postId", "userId");
+        dedupeAndIndex(CommentLike.class, "comment_user", "commentId", "userId");
+    }
+
+    private void dedupeAndIndex(Class<?> entity, String name, String... keys) {
+        IndexOperations indexes = mongoTemplate.indexOps(entity);
+        boolean exists = indexes.getIndexInfo().stream()
+                .anyMatch(index -> index.getName().equals(name) && index.isUnique());
+        if (exists) {
+            return;
+        }
+
+        long removed = removeDuplicates(mongoTemplate.getCollection(mongoTemplate.getCollectionName(entity)), keys);
+        if (removed > 0) {
+            // Denormalized counters catch up at the next scheduled reconcile
+            log.warn("Removed {} duplicate {} documents before creating index {}", removed,
+                    entity.getSimpleName(), name);
+        }
+
+        Index index = new Index().named(name).unique();
+        for (String key : keys) {
+            index.on(key, Sort.Direction.ASC);
+        }
+        indexes.ensureIndex(index);
+    }
+
+    // Keeps the oldest document (lowest _id) of every group sharing the key fields
+    private long removeDuplicates(MongoCollection<Document> collection, String... keys) {
+        Document groupKey = new Document();
+        for (String key : keys) {
+            groupKey.append(key, "$" + key);
+        }
+        List<Document> pipeline = List.of(
+                new Document("$group", new Document("_id", groupKey)
+                        .append("keep", new Document("$min", "$_id"))
+                        .append("ids", new Document("$push", "$_id"))),
+                new Document("$match", new Document("ids.1", new Document("$exists", true))));
+
+        long removed = 0;
+        for (Document group : collection.aggregate(pipeline).allowDiskUse(true)) {
+            Object keep = group.get("keep");
+            List<Object> extra = group.getList("ids", Object.class).stream()
+                    .filter(id -> !id.equals(keep))
+                    .toList();
+            removed += collection.deleteMany(Filters.in("_id", extra)).getDeletedCount();
+        }
+        return removed;
+    }
+}
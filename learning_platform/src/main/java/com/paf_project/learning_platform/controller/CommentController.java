@@ -42,6 +42,21 @@ public class CommentController {
         return ResponseEntity.ok(commentService.getCommentsByPostId(postId));
     }
 
+    // Paginated comments with reply/like counts, the viewer's likes and the first replies inlined
+    @GetMapping("/post/{postId}/thread")
+    public ResponseEntity<?> getCommentThreads(
+            @PathVariable String postId,
+            @RequestParam(required = false) String viewerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "3") int replies) {
+        try {
+            return ResponseEntity.ok(commentService.getCommentThreads(postId, viewerId, cursor, limit, replies));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/count/{postId}")
     public ResponseEntity<Map<String, Long>> getCommentCount(@PathVariable String postId) {
         return ResponseEntity.ok(Map.of("count", commentService.getCommentCount(postId)));
@@ -39,6 +39,29 @@ public class CommentLikeController {
         }
     }
 
+    @GetMapping("/comment/{commentId}/likers")
+    public ResponseEntity<?> getLikers(
+            @PathVariable String commentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(commentLikeService.getLikers(commentId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/comment/{commentId}/likers/summary")
+    public ResponseEntity<?> getLikersSummary(
+            @PathVariable String commentId,
+            @RequestParam(defaultValue = "3") int limit) {
+        try {
+            return ResponseEntity.ok(commentLikeService.getLikersSummary(commentId, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/count/{commentId}")
     public ResponseEntity<?> getLikeCount(@PathVariable String commentId) {
         try {
@@ -39,6 +39,29 @@ public class LikeController {
         }
     }
 
+    @GetMapping("/post/{postId}/likers")
+    public ResponseEntity<?> getLikers(
+            @PathVariable String postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(likeService.getLikers(postId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/post/{postId}/likers/summary")
+    public ResponseEntity<?> getLikersSummary(
+            @PathVariable String postId,
+            @RequestParam(defaultValue = "3") int limit) {
+        try {
+            return ResponseEntity.ok(likeService.getLikersSummary(postId, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/count/{postId}")
     public ResponseEntity<?> getLikeCount(@PathVariable String postId) {
         try {
@@ -0,0 +1,169 @@
+package com.paf_project.learning_platform.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import com.paf_project.learning_platform.dto.CursorPageDTO;
+import com.paf_project.learning_platform.dto.PostCardsRequestDTO;
+import com.paf_project.learning_platform.dto.ShareRequestDTO;
+import com.paf_project.learning_platform.model.MediaModel;
+import com.paf_project.learning_platform.model.UploadSession;
+import com.paf_project.learning_platform.service.ChunkedUploadService;
+import com.paf_project.learning_platform.service.MediaService;
+import com.paf_project.learning_platform.service.PostCardService;
+import com.paf_project.learning_platform.service.TimelineService;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+@RestController
+@RequestMapping("/api/media")
+@CrossOrigin(origins = "http://localhost:5173")
+public class MediaController {
+    @Autowired
+    private MediaService mediaService;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private PostCardService postCardService;
+
+    @GetMapping("/feed")
+    public ResponseEntity<?> getFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            CursorPageDTO<MediaModel> page = mediaService.getFeed(cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // One round trip for a whole feed page: post, author, counts, hasLiked and saved per card
+    @PostMapping("/cards")
+    public ResponseEntity<?> getCards(@RequestBody PostCardsRequestDTO request) {
+        try {
+            return ResponseEntity.ok(postCardService.getCards(request.getPostIds(), request.getViewerId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/delete/{id}")
+    public ResponseEntity<Void> deletePost(@PathVariable String id) {
+        mediaService.deletePost(id);
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/share")
+    public ResponseEntity<?> sharePost(@RequestBody ShareRequestDTO request) {
+        try {
+            mediaService.sharePost(request.getPostId(), request.getFromUserId(), request.getToUserId());
+            return ResponseEntity.ok().build();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/share/bulk")
+    public ResponseEntity<?> sharePostWithMany(@RequestBody ShareRequestDTO request) {
+        try {
+            List<MediaModel> shares = mediaService.sharePostWithMany(
+                    request.getPostId(), request.getFromUserId(), request.getToUserIds());
+            return ResponseEntity.ok(Map.of("shared", shares.size()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/timeline/{userId}")
+    public ResponseEntity<?> getTimeline(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            CursorPageDTO<MediaModel> page = timelineService.getTimeline(userId, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Resumable chunked uploads for large videos
+
+    @PostMapping("/uploads")
+    public ResponseEntity<?> startUpload(
+            @RequestParam String userId,
+            @RequestParam String fileName,
+            @RequestParam String contentType,
+            @RequestParam long totalSize) {
+        try {
+            UploadSession session = chunkedUploadService.startUpload(userId, fileName, contentType, totalSize);
+            return ResponseEntity.ok(session);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/uploads/{uploadId}")
+    public ResponseEntity<?> getUpload(@PathVariable String uploadId) {
+        try {
+            return ResponseEntity.ok(chunkedUploadService.getUpload(uploadId));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Chunk bytes are read straight from the request body stream
+    @PutMapping("/uploads/{uploadId}")
+    public ResponseEntity<?> appendChunk(
+            @PathVariable String uploadId,
+            @RequestParam String userId,
+            @RequestParam long offset,
+            HttpServletRequest request) {
+        try {
+            UploadSession session = chunkedUploadService.appendChunk(uploadId, userId, offset,
+                    request.getInputStream());
+            return ResponseEntity.ok(Map.of("receivedBytes", session.getReceivedBytes()));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/uploads/{uploadId}/post")
+    public ResponseEntity<?> createPostFromUpload(
+            @PathVariable String uploadId,
+            @RequestParam String userId,
+            @RequestParam(required = false) String description) {
+        try {
+            return ResponseEntity.ok(mediaService.createPostFromUpload(userId, description, uploadId));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", e.getMessage()));
+        }
+    }
+}
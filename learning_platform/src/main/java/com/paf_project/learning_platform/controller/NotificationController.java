@@ -1,12 +1,16 @@
 package com.paf_project.learning_platform.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.paf_project.learning_platform.model.Notification;
+import com.paf_project.learning_platform.service.NotificationPushService;
 import com.paf_project.learning_platform.service.NotificationService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -18,6 +22,15 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private NotificationPushService notificationPushService;
+
+    // Pushes "notification" and "unread-count" events; replaces polling the count endpoint
+    @GetMapping(value = "/stream/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@PathVariable String userId) {
+        return notificationPushService.subscribe(userId);
+    }
+
     @GetMapping("/{userId}")
     public ResponseEntity<List<Notification>> getNotifications(@PathVariable String userId) {
         return ResponseEntity.ok(notificationService.getNotifications(userId));
@@ -41,8 +54,25 @@ public class NotificationController {
     }
 
     @PostMapping("/{userId}/read-all")
-    public ResponseEntity<Void> markAllAsRead(@PathVariable String userId) {
-        notificationService.markAllAsRead(userId);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<Map<String, Long>> markAllAsRead(@PathVariable String userId) {
+        return ResponseEntity.ok(Map.of("modified", notificationService.markAllAsRead(userId)));
+    }
+
+    @PostMapping("/{userId}/read-batch")
+    public ResponseEntity<Map<String, Long>> markAsRead(
+            @PathVariable String userId,
+            @RequestBody List<String> notificationIds) {
+        return ResponseEntity.ok(Map.of("modified", notificationService.markAsRead(userId, notificationIds)));
+    }
+
+    @DeleteMapping("/{userId}/older-than")
+    public ResponseEntity<?> deleteOlderThan(
+            @PathVariable String userId,
+            @RequestParam int days) {
+        if (days < 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "days must not be negative"));
+        }
+        long deleted = notificationService.deleteOlderThan(userId, LocalDateTime.now().minusDays(days));
+        return ResponseEntity.ok(Map.of("deleted", deleted));
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.paf_project.learning_platform.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.paf_project.learning_platform.service.PostSearchService;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "http://localhost:5173")
+public class SearchController {
+
+    @Autowired
+    private PostSearchService postSearchService;
+
+    // Ranked post ids; hydrate a page with POST /api/media/cards
+    @GetMapping("/posts")
+    public ResponseEntity<?> searchPosts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(postSearchService.search(q, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
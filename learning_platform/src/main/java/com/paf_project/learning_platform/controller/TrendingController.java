@@ -0,0 +1,27 @@
+package com.paf_project.learning_platform.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.paf_project.learning_platform.dto.TrendingPostDTO;
+import com.paf_project.learning_platform.service.TrendingService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/trending")
+@CrossOrigin(origins = "http://localhost:5173")
+public class TrendingController {
+
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    // Served from the in-memory snapshot; hydrate the ids with POST /api/media/cards
+    @GetMapping
+    public ResponseEntity<List<TrendingPostDTO>> getTrending(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(trendingService.getTrending(Math.min(Math.max(limit, 1), MAX_LIMIT)));
+    }
+}
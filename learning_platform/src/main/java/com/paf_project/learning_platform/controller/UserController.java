@@ -4,12 +4,15 @@ import com.paf_project.learning_platform.dto.AuthRequestDTO;
 import com.paf_project.learning_platform.dto.RegisterRequestDTO;
 import com.paf_project.learning_platform.dto.UserDTO;
 import com.paf_project.learning_platform.model.User;
+import com.paf_project.learning_platform.service.ProfilePropagationService;
+import com.paf_project.learning_platform.service.UserProfileCache;
 import com.paf_project.learning_platform.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/user")
@@ -19,6 +22,12 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private ProfilePropagationService profilePropagationService;
+
     @PostMapping("/google-auth")
     public User googleAuth(@RequestBody UserDTO userDTO) {
         return userService.registerOrGetUser(userDTO);
@@ -39,6 +48,20 @@ public class UserController {
         return userService.loginUser(request);
     }
 
+    // Size, hit rate and load/eviction counts of the profile cache
+    @GetMapping("/profile-cache/stats")
+    public Map<String, Object> getProfileCacheStats() {
+        return userProfileCache.getStats();
+    }
+
+    // Progress of copying the user's latest profile edit into comments, likes and notifications
+    @GetMapping("/{id}/profile-propagation")
+    public ResponseEntity<?> getProfilePropagation(@PathVariable String id) {
+        return profilePropagationService.getLatest(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PutMapping("/update/{id}")
     public ResponseEntity<User> updateUser(@PathVariable String id, @RequestBody User updatedUser) {
         return userService.updateUser(id, updatedUser);
@@ -0,0 +1,55 @@
+package com.paf_project.learning_platform.dto;
+
+import com.paf_project.learning_platform.model.Comment;
+import com.paf_project.learning_platform.model.CommentReply;
+
+import java.util.List;
+
+// A comment with everything its row renders: counts, the viewer's like and the first replies
+public class CommentThreadDTO {
+    private Comment comment;
+    private long replyCount;
+    private long likeCount;
+    private boolean hasLiked;
+    private List<CommentReply> replies; // oldest first, at most the requested preview size
+
+    public Comment getComment() {
+        return comment;
+    }
+
+    public void setComment(Comment comment) {
+        this.comment = comment;
+    }
+
+    public long getReplyCount() {
+        return replyCount;
+    }
+
+    public void setReplyCount(long replyCount) {
+        this.replyCount = replyCount;
+    }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(long likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public boolean isHasLiked() {
+        return hasLiked;
+    }
+
+    public void setHasLiked(boolean hasLiked) {
+        this.hasLiked = hasLiked;
+    }
+
+    public List<CommentReply> getReplies() {
+        return replies;
+    }
+
+    public void setReplies(List<CommentReply> replies) {
+        this.replies = replies;
+    }
+}
@@ -0,0 +1,42 @@
+package com.paf_project.learning_platform.dto;
+
+import java.util.Date;
+
+public class LikerDTO {
+    private String userId;
+    private String userName;
+    private Date likedAt;
+
+    public LikerDTO() {
+    }
+
+    public LikerDTO(String userId, String userName, Date likedAt) {
+        this.userId = userId;
+        this.userName = userName;
+        this.likedAt = likedAt;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public Date getLikedAt() {
+        return likedAt;
+    }
+
+    public void setLikedAt(Date likedAt) {
+        this.likedAt = likedAt;
+    }
+}
@@ -0,0 +1,33 @@
+package com.paf_project.learning_platform.dto;
+
+import java.util.List;
+
+// "Liked by A, B and 1,204 others"
+public class LikersSummaryDTO {
+    private List<LikerDTO> likers;
+    private long total;
+
+    public LikersSummaryDTO() {
+    }
+
+    public LikersSummaryDTO(List<LikerDTO> likers, long total) {
+        this.likers = likers;
+        this.total = total;
+    }
+
+    public List<LikerDTO> getLikers() {
+        return likers;
+    }
+
+    public void setLikers(List<LikerDTO> likers) {
+        this.likers = likers;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+}
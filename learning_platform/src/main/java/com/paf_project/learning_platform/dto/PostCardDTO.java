@@ -0,0 +1,52 @@
+package com.paf_project.learning_platform.dto;
+
+import com.paf_project.learning_platform.model.MediaModel;
+
+// Everything a feed card needs in one object; engagement counts come on the post itself
+public class PostCardDTO {
+    private MediaModel post;
+    private UserSummaryDTO author;
+    private UserSummaryDTO sharedBy; // null unless the post is a share
+    private boolean hasLiked;
+    private boolean saved;
+
+    public MediaModel getPost() {
+        return post;
+    }
+
+    public void setPost(MediaModel post) {
+        this.post = post;
+    }
+
+    public UserSummaryDTO getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(UserSummaryDTO author) {
+        this.author = author;
+    }
+
+    public UserSummaryDTO getSharedBy() {
+        return sharedBy;
+    }
+
+    public void setSharedBy(UserSummaryDTO sharedBy) {
+        this.sharedBy = sharedBy;
+    }
+
+    public boolean isHasLiked() {
+        return hasLiked;
+    }
+
+    public void setHasLiked(boolean hasLiked) {
+        this.hasLiked = hasLiked;
+    }
+
+    public boolean isSaved() {
+        return saved;
+    }
+
+    public void setSaved(boolean saved) {
+        this.saved = saved;
+    }
+}
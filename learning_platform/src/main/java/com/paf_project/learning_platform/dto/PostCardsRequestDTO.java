@@ -0,0 +1,24 @@
+package com.paf_project.learning_platform.dto;
+
+import java.util.List;
+
+public class PostCardsRequestDTO {
+    private List<String> postIds;
+    private String viewerId;
+
+    public List<String> getPostIds() {
+        return postIds;
+    }
+
+    public void setPostIds(List<String> postIds) {
+        this.postIds = postIds;
+    }
+
+    public String getViewerId() {
+        return viewerId;
+    }
+
+    public void setViewerId(String viewerId) {
+        this.viewerId = viewerId;
+    }
+}
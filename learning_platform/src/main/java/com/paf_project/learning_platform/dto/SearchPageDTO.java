@@ -0,0 +1,52 @@
+package com.paf_project.learning_platform.dto;
+
+import java.util.List;
+
+public class SearchPageDTO {
+    private List<SearchHitDTO> hits;
+    private int total; // number of matching posts, not just this page
+    private int page;
+    private int size;
+
+    public SearchPageDTO() {
+    }
+
+    public SearchPageDTO(List<SearchHitDTO> hits, int total, int page, int size) {
+        this.hits = hits;
+        this.total = total;
+        this.page = page;
+        this.size = size;
+    }
+
+    public List<SearchHitDTO> getHits() {
+        return hits;
+    }
+
+    public void setHits(List<SearchHitDTO> hits) {
+        this.hits = hits;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+}
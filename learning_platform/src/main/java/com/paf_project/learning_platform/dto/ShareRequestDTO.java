@@ -1,9 +1,12 @@
 package com.paf_project.learning_platform.dto;
 
+import java.util.List;
+
 public class ShareRequestDTO {
     private String postId;
     private String fromUserId;
     private String toUserId;
+    private List<String> toUserIds; // bulk share
 
     // Getters and Setters
     public String getPostId() {
@@ -26,4 +29,11 @@ public class ShareRequestDTO {
     public void setToUserId(String toUserId) {
         this.toUserId = toUserId;
     }
+
+    public List<String> getToUserIds() {
+        return toUserIds;
+    }
+    public void setToUserIds(List<String> toUserIds) {
+        this.toUserIds = toUserIds;
+    }
 }
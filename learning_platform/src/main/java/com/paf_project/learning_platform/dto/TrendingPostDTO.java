@@ -0,0 +1,30 @@
+package com.paf_project.learning_platform.dto;
+
+public class TrendingPostDTO {
+    private String postId;
+    private double score;
+
+    public TrendingPostDTO() {
+    }
+
+    public TrendingPostDTO(String postId, double score) {
+        this.postId = postId;
+        this.score = score;
+    }
+
+    public String getPostId() {
+        return postId;
+    }
+
+    public void setPostId(String postId) {
+        this.postId = postId;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
@@ -0,0 +1,56 @@
+package com.paf_project.learning_platform.dto;
+
+import com.paf_project.learning_platform.model.User;
+
+public class UserSummaryDTO {
+    private String id;
+    private String name;
+    private String imageUrl;
+    private String role;
+
+    public UserSummaryDTO() {
+    }
+
+    public UserSummaryDTO(String id, String name, String imageUrl, String role) {
+        this.id = id;
+        this.name = name;
+        this.imageUrl = imageUrl;
+        this.role = role;
+    }
+
+    public static UserSummaryDTO from(User user) {
+        return new UserSummaryDTO(user.getId(), user.getName(), user.getImageUrl(), user.getRole());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+}
@@ -0,0 +1,35 @@
+package com.paf_project.learning_platform.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+// Durable queue entry: dependents of a deleted post or comment still waiting to be removed.
+// The entry is only deleted once every dependent is gone, so a crash just means a rerun.
+@Data
+@NoArgsConstructor
+@Document(collection = "cascade_delete_tasks")
+public class CascadeDeleteTask {
+
+    public enum TargetType {
+        POST,
+        COMMENT
+    }
+
+    @Id
+    private String id;
+    private TargetType targetType;
+    private String targetId;
+    @Indexed
+    private Date createdAt = new Date();
+    private Date leasedUntil; // set while a worker is processing the task
+
+    public CascadeDeleteTask(TargetType targetType, String targetId) {
+        this.targetType = targetType;
+        this.targetId = targetId;
+    }
+}
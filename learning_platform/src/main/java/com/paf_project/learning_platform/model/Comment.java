@@ -2,11 +2,14 @@ package com.paf_project.learning_platform.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.util.Date;
 
 @Data
 @Document(collection = "comments")
+@CompoundIndex(name = "user_order", def = "{'userId': 1, '_id': 1}")
+@CompoundIndex(name = "post_thread", def = "{'postId': 1, 'createdAt': -1, '_id': -1}")
 public class Comment {
     @Id
     private String id;
@@ -2,11 +2,15 @@ package com.paf_project.learning_platform.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.util.Date;
 
 @Data
 @Document(collection = "comment_likes")
+// The unique (commentId, userId) index is created by UniqueIndexInitializer after removing duplicates
+@CompoundIndex(name = "user_order", def = "{'userId': 1, '_id': 1}")
+@CompoundIndex(name = "comment_likers", def = "{'commentId': 1, 'createdAt': -1, '_id': -1}")
 public class CommentLike {
     @Id
     private String id;
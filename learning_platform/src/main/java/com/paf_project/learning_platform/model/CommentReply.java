@@ -2,11 +2,14 @@ package com.paf_project.learning_platform.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.util.Date;
 
 @Data
 @Document(collection = "comment_replies")
+@CompoundIndex(name = "user_order", def = "{'userId': 1, '_id': 1}")
+@CompoundIndex(name = "comment_replies_order", def = "{'commentId': 1, 'createdAt': 1}")
 public class CommentReply {
     @Id
     private String id;
@@ -1,10 +1,14 @@
 package com.paf_project.learning_platform.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 
 @Document(collection = "follows")
+@CompoundIndex(name = "follower_following", def = "{'followerId': 1, 'followingId': 1}")
+@CompoundIndex(name = "following_follower", def = "{'followingId': 1, 'followerId': 1}")
+@CompoundIndex(name = "following_order", def = "{'followingId': 1, '_id': 1}")
 public class Follow {
     @Id
     private String id;
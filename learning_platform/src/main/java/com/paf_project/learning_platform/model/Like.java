@@ -2,11 +2,15 @@ package com.paf_project.learning_platform.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.util.Date;
 
 @Data
 @Document(collection = "likes")
+// The unique (postId, userId) index is created by UniqueIndexInitializer after removing duplicates
+@CompoundIndex(name = "user_post", def = "{'userId': 1, 'postId': 1}")
+@CompoundIndex(name = "post_likers", def = "{'postId': 1, 'createdAt': -1, '_id': -1}")
 public class Like {
     @Id
     private String id;
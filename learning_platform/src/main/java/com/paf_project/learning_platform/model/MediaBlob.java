@@ -0,0 +1,25 @@
+package com.paf_project.learning_platform.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.util.Date;
+
+// Registry entry for a stored media object, keyed by the SHA-256 of its content
+@Data
+@Document(collection = "media_blobs")
+public class MediaBlob {
+    @Id
+    private String id; // hex SHA-256 of the content
+    @Indexed
+    private String path;
+    @Indexed
+    private String url;
+    private String contentType;
+    private long size;
+    private long refCount; // posts (and derivatives) pointing at this blob
+    private boolean ready; // false while the first upload is still in flight
+    private Date createdAt;
+    private Date lastReferencedAt; // the orphan sweeper leaves recently referenced blobs alone
+}
@@ -2,6 +2,9 @@ package com.paf_project.learning_platform.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.util.Date;
@@ -9,19 +12,42 @@ import java.util.List;
 
 @Data
 @Document(collection = "posts")
+@CompoundIndex(name = "feed_order", def = "{'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "author_feed_order", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
 public class MediaModel {
     @Id
     private String id;
     private String userId; // <-- Add this line to know who created the post
 
     private String description;
+    @Indexed
     private List<String> imageUrls; // 1-3 images
+    @Indexed(sparse = true)
     private String videoUrl; // 1 video (null if images exist)
+
+    // Downscaled copies of imageUrls (same order), filled in the background after upload.
+    // An entry equals the original URL when the image is already small enough.
+    @Indexed(sparse = true)
+    private List<String> thumbnailUrls;
+    @Indexed(sparse = true)
+    private List<String> mediumUrls;
     private Date createdAt = new Date();
 
     public enum MediaType { IMAGE, VIDEO }
     private MediaType mediaType;
 
+    // Shares are lightweight references: no copied description or media
+    @Indexed(sparse = true)
+    private String sharedFromPostId;
+    private String sharedByUserId;
+
+    // Engagement counters kept current with atomic $inc; reconciled periodically
+    private long likeCount;
+    private long commentCount;
+    private long shareCount;
+    private long saveCount;
 
+    @Transient
+    private MediaModel originalPost; // filled in when a page of posts is rendered
 
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.paf_project.learning_platform.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+// Durable queue entry: media of a deleted post still waiting to be released in the background
+@Data
+@NoArgsConstructor
+@Document(collection = "media_release_tasks")
+public class MediaReleaseTask {
+    @Id
+    private String id;
+    private String postId;
+    private List<String> urls = new ArrayList<>();
+    @Indexed
+    private Date createdAt = new Date();
+
+    public MediaReleaseTask(MediaModel post) {
+        this.postId = post.getId();
+        if (post.getImageUrls() != null) {
+            urls.addAll(post.getImageUrls());
+        }
+        if (post.getVideoUrl() != null) {
+            urls.add(post.getVideoUrl());
+        }
+        addDerivatives(post, post.getThumbnailUrls());
+        addDerivatives(post, post.getMediumUrls());
+    }
+
+    // Derivatives that just reuse the original hold no reference of their own
+    private void addDerivatives(MediaModel post, List<String> derivativeUrls) {
+        if (derivativeUrls == null) {
+            return;
+        }
+        derivativeUrls.stream()
+                .filter(url -> post.getImageUrls() == null || !post.getImageUrls().contains(url))
+                .forEach(urls::add);
+    }
+}
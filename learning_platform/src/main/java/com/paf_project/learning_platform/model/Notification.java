@@ -1,13 +1,21 @@
 package com.paf_project.learning_platform.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Document(collection = "notifications")
+@CompoundIndex(name = "sender_order", def = "{'senderId': 1, '_id': 1}")
+@CompoundIndex(name = "actor_order", def = "{'recentActors.userId': 1, '_id': 1}")
+@CompoundIndex(name = "recipient_feed", def = "{'recipientId': 1, 'createdAt': -1}")
+@CompoundIndex(name = "recipient_unread", def = "{'recipientId': 1, 'isRead': 1}")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -29,14 +37,42 @@ public class Notification {
 
     private LocalDateTime createdAt;
 
+    @Indexed(sparse = true)
     private String postId; // Optional, for like and comment notifications
 
+    // Set on coalesced LIKE/COMMENT notifications: recipient, type, post and time window
+    @Indexed(unique = true, sparse = true)
+    private String groupKey;
+
+    private long actorCount = 1;
+
+    // Distinct senders counted so far, up to notifications.coalesce.max-tracked-actors; once the set
+    // is full new senders are no longer counted and actorCountCapped marks actorCount as a lower bound
+    @JsonIgnore
+    private List<String> actorIds;
+
+    private boolean actorCountCapped;
+
+    private List<NotificationActor> recentActors; // Newest first, capped
+
     public void onCreate() {
         if (createdAt == null) {
             createdAt = LocalDateTime.now();
         }
     }
 
+    // Coalesced notifications store the latest event's text; this builds "Alice and 41 others ..."
+    public void summarizeActors() {
+        long others = actorCount - 1;
+        if (others < 1) {
+            return;
+        }
+        String action = "COMMENT".equals(type) ? "commented on your post" : "liked your post";
+        // A capped count stopped growing when the tracked set filled up, so it is only a lower bound
+        content = senderName + " and " + (actorCountCapped ? "over " : "") + others
+                + (others == 1 ? " other " : " others ") + action;
+    }
+
     public void setRead(boolean isRead) {
         this.isRead = isRead;
     }
@@ -0,0 +1,15 @@
+package com.paf_project.learning_platform.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One of the most recent senders folded into a coalesced notification
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationActor {
+    private String userId;
+    private String name;
+    private String imageUrl;
+}
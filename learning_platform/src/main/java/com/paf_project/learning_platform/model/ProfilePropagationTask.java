@@ -0,0 +1,30 @@
+package com.paf_project.learning_platform.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+// Progress of copying a user's new name/image into the collections that denormalize it.
+// stage/lastKey are the resume point; version changes when a newer edit supersedes the run.
+@Data
+@Document(collection = "profile_propagation_tasks")
+public class ProfilePropagationTask {
+    @Id
+    private String id;
+    @Indexed
+    private String userId;
+    private String name;
+    private String imageUrl;
+    private long version;
+    private int stage;
+    private String stageName;
+    private String lastKey;
+    private long updatedCount;
+    private Date createdAt;
+    private Date leasedUntil;
+    @Indexed(expireAfter = "7d")
+    private Date completedAt; // finished runs stay visible for a week
+}
@@ -2,15 +2,19 @@ package com.paf_project.learning_platform.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.util.Date;
 
 @Data
 @Document(collection = "savedposts")
+@CompoundIndex(name = "user_post", def = "{'userId': 1, 'postId': 1}")
 public class SavedPost {
     @Id
     private String id;
     private String userId;
+    @Indexed
     private String postId;
     private Date savedAt = new Date();
 }
\ No newline at end of file
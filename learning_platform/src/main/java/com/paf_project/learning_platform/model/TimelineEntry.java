@@ -0,0 +1,32 @@
+package com.paf_project.learning_platform.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.util.Date;
+
+// One row per (timeline owner, post), written when a post is fanned out to followers
+@Data
+@NoArgsConstructor
+@Document(collection = "timelines")
+@CompoundIndex(name = "owner_feed", def = "{'ownerId': 1, 'createdAt': -1, 'postId': -1}")
+@CompoundIndex(name = "owner_post", def = "{'ownerId': 1, 'postId': 1}", unique = true)
+public class TimelineEntry {
+    @Id
+    private String id;
+    private String ownerId;
+    @Indexed
+    private String postId;
+    private String authorId;
+    private Date createdAt; // copied from the post so the timeline sorts without a join
+
+    public TimelineEntry(String ownerId, MediaModel post) {
+        this.ownerId = ownerId;
+        this.postId = post.getId();
+        this.authorId = post.getUserId();
+        this.createdAt = post.getCreatedAt();
+    }
+}
@@ -0,0 +1,16 @@
+package com.paf_project.learning_platform.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.util.Date;
+
+// Checkpoint of a post's decayed trending score, valid as of updatedAt
+@Data
+@Document(collection = "trending_scores")
+public class TrendingScore {
+    @Id
+    private String id; // post id
+    private double score;
+    private Date updatedAt;
+}
@@ -0,0 +1,24 @@
+package com.paf_project.learning_platform.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.util.Date;
+
+// A resumable chunked upload. Bytes are staged on local disk until the upload is completed.
+@Data
+@Document(collection = "upload_sessions")
+public class UploadSession {
+    @Id
+    private String id;
+    private String userId;
+    private String fileName;
+    private String contentType;
+    private long totalSize;
+    private long receivedBytes; // next offset the client must send
+    private Date chunkLeaseUntil; // set while a chunk is being written at receivedBytes
+    private Date createdAt = new Date();
+    @Indexed
+    private Date updatedAt = new Date();
+}
@@ -14,6 +14,7 @@ public class User {
     private String password;
     private String authProvider; // "google" or "local"
     private String role; // "USER", "ADMIN", etc.
+    private boolean highFanout; // too many followers for fan-out-on-write timelines
 
     public User() {}
 
@@ -45,6 +46,9 @@ public class User {
     public String getRole() { return role; }
     public void setRole(String role) { this.role = role; }
 
+    public boolean isHighFanout() { return highFanout; }
+    public void setHighFanout(boolean highFanout) { this.highFanout = highFanout; }
+
     @Override
     public String toString() {
         return "User{" +
@@ -1,9 +1,14 @@
 package com.paf_project.learning_platform.repository;
 
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import com.paf_project.learning_platform.model.CommentLike;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,7 +17,19 @@ public interface CommentLikeRepo extends MongoRepository<CommentLike, String> {
 
     long countByCommentId(String commentId);
 
+    // Keyset pages of likers, newest first, projected to what a likers list shows
+    @Query(value = "{ 'commentId': ?0 }", fields = "{ 'userId': 1, 'userName': 1, 'createdAt': 1 }",
+            sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<CommentLike> findLatestLikers(String commentId, Pageable pageable);
+
+    @Query(value = "{ 'commentId': ?0, '$or': [ { 'createdAt': { '$lt': ?1 } }, { 'createdAt': ?1, '_id': { '$lt': ?2 } } ] }",
+            fields = "{ 'userId': 1, 'userName': 1, 'createdAt': 1 }",
+            sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<CommentLike> findLikersOlderThan(String commentId, Date createdAt, ObjectId id, Pageable pageable);
+
     Optional<CommentLike> findByCommentIdAndUserId(String commentId, String userId);
 
+    List<CommentLike> findByUserIdAndCommentIdIn(String userId, Collection<String> commentIds);
+
     void deleteByCommentIdAndUserId(String commentId, String userId);
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package com.paf_project.learning_platform.repository;
 
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import com.paf_project.learning_platform.model.Comment;
 import com.paf_project.learning_platform.model.CommentLike;
 
+import java.util.Date;
 import java.util.List;
 
 public interface CommentRepo extends MongoRepository<Comment, String> {
@@ -12,4 +16,12 @@ public interface CommentRepo extends MongoRepository<Comment, String> {
     List<Comment> findByPostId(String postId); // Must match what's expected
 
     long countByPostId(String postId);
+
+    // Keyset pages of a post's comments, newest first
+    @Query(value = "{ 'postId': ?0 }", sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<Comment> findLatestByPostId(String postId, Pageable pageable);
+
+    @Query(value = "{ 'postId': ?0, '$or': [ { 'createdAt': { '$lt': ?1 } }, { 'createdAt': ?1, '_id': { '$lt': ?2 } } ] }",
+            sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<Comment> findOlderThanByPostId(String postId, Date createdAt, ObjectId id, Pageable pageable);
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package com.paf_project.learning_platform.repository;
 
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import com.paf_project.learning_platform.model.Follow;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +18,15 @@ public interface FollowRepository extends MongoRepository<Follow, String> {
 
     List<Follow> findByFollowingId(String followingId);
 
+    // Keyset pages over an author's followers in _id order, for fan-out
+    @Query(value = "{ 'followingId': ?0 }", sort = "{ '_id': 1 }")
+    List<Follow> findFirstFollowers(String followingId, Pageable pageable);
+
+    @Query(value = "{ 'followingId': ?0, '_id': { '$gt': ?1 } }", sort = "{ '_id': 1 }")
+    List<Follow> findFollowersAfter(String followingId, ObjectId lastId, Pageable pageable);
+
+    List<Follow> findByFollowerIdAndFollowingIdIn(String followerId, Collection<String> followingIds);
+
     long countByFollowerId(String followerId);
 
     long countByFollowingId(String followingId);
@@ -1,10 +1,15 @@
 package com.paf_project.learning_platform.repository;
 
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.paf_project.learning_platform.model.Like;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +20,20 @@ public interface LikeRepo extends MongoRepository<Like, String> {
 
     Optional<Like> findByPostIdAndUserId(String postId, String userId);
 
+    // Keyset pages of likers, newest first, projected to what a likers list shows
+    @Query(value = "{ 'postId': ?0 }", fields = "{ 'userId': 1, 'userName': 1, 'createdAt': 1 }",
+            sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<Like> findLatestLikers(String postId, Pageable pageable);
+
+    @Query(value = "{ 'postId': ?0, '$or': [ { 'createdAt': { '$lt': ?1 } }, { 'createdAt': ?1, '_id': { '$lt': ?2 } } ] }",
+            fields = "{ 'userId': 1, 'userName': 1, 'createdAt': 1 }",
+            sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<Like> findLikersOlderThan(String postId, Date createdAt, ObjectId id, Pageable pageable);
+
+    boolean existsByPostIdAndUserId(String postId, String userId);
+
+    List<Like> findByUserIdAndPostIdIn(String userId, Collection<String> postIds);
+
     @Transactional
     void deleteByPostIdAndUserId(String postId, String userId);
 }
\ No newline at end of file
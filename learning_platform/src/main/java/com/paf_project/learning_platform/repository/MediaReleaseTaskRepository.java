@@ -0,0 +1,8 @@
+package com.paf_project.learning_platform.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.paf_project.learning_platform.model.MediaReleaseTask;
+
+public interface MediaReleaseTaskRepository extends MongoRepository<MediaReleaseTask, String> {
+}
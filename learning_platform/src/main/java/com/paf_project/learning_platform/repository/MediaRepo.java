@@ -2,10 +2,34 @@ package com.paf_project.learning_platform.repository;
 
 
 import com.paf_project.learning_platform.model.MediaModel;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
 public interface MediaRepo extends MongoRepository<MediaModel, String> {
     List<MediaModel> findByUserId(String userId);
+
+    @Query(value = "{ '$or': [ { 'imageUrls': ?0 }, { 'videoUrl': ?0 } ] }", exists = true)
+    boolean isUrlReferenced(String url);
+
+    // Keyset pages over the (createdAt desc, _id desc) index, newest first
+    @Query(value = "{}", sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<MediaModel> findLatest(Pageable pageable);
+
+    @Query(value = "{ '$or': [ { 'createdAt': { '$lt': ?0 } }, { 'createdAt': ?0, '_id': { '$lt': ?1 } } ] }",
+            sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<MediaModel> findOlderThan(Date createdAt, ObjectId id, Pageable pageable);
+
+    // Same keyset pages restricted to a set of authors (fan-out-on-read timelines)
+    @Query(value = "{ 'userId': { '$in': ?0 } }", sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<MediaModel> findLatestByUserIds(Collection<String> userIds, Pageable pageable);
+
+    @Query(value = "{ 'userId': { '$in': ?0 }, '$or': [ { 'createdAt': { '$lt': ?1 } }, { 'createdAt': ?1, '_id': { '$lt': ?2 } } ] }",
+            sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<MediaModel> findOlderThanByUserIds(Collection<String> userIds, Date createdAt, ObjectId id, Pageable pageable);
 }
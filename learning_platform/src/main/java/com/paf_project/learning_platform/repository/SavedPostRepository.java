@@ -5,6 +5,7 @@ import org.springframework.stereotype.Repository;
 
 import com.paf_project.learning_platform.model.SavedPost;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,7 +15,9 @@ public interface SavedPostRepository extends MongoRepository<SavedPost, String>
 
     Optional<SavedPost> findByUserIdAndPostId(String userId, String postId);
 
-    void deleteByUserIdAndPostId(String userId, String postId);
+    List<SavedPost> findByUserIdAndPostIdIn(String userId, Collection<String> postIds);
+
+    long deleteByUserIdAndPostId(String userId, String postId);
 
     boolean existsByUserIdAndPostId(String userId, String postId);
 }
\ No newline at end of file
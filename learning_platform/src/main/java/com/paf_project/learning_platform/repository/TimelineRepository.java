@@ -0,0 +1,18 @@
+package com.paf_project.learning_platform.repository;
+
+import com.paf_project.learning_platform.model.TimelineEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.Date;
+import java.util.List;
+
+public interface TimelineRepository extends MongoRepository<TimelineEntry, String> {
+    @Query(value = "{ 'ownerId': ?0 }", sort = "{ 'createdAt': -1, 'postId': -1 }")
+    List<TimelineEntry> findLatest(String ownerId, Pageable pageable);
+
+    @Query(value = "{ 'ownerId': ?0, '$or': [ { 'createdAt': { '$lt': ?1 } }, { 'createdAt': ?1, 'postId': { '$lt': ?2 } } ] }",
+            sort = "{ 'createdAt': -1, 'postId': -1 }")
+    List<TimelineEntry> findOlderThan(String ownerId, Date createdAt, String postId, Pageable pageable);
+}
@@ -0,0 +1,12 @@
+package com.paf_project.learning_platform.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.paf_project.learning_platform.model.UploadSession;
+
+import java.util.Date;
+import java.util.List;
+
+public interface UploadSessionRepository extends MongoRepository<UploadSession, String> {
+    List<UploadSession> findByUpdatedAtBefore(Date cutoff);
+}
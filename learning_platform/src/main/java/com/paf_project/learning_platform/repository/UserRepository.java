@@ -3,8 +3,11 @@ package com.paf_project.learning_platform.repository;
 import com.paf_project.learning_platform.model.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends MongoRepository<User, String> {
     Optional<User> findByEmail(String email);
+
+    List<User> findByHighFanoutTrue();
 }
@@ -0,0 +1,260 @@
+package com.paf_project.learning_platform.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory inverted index with BM25 ranking. Documents get dense int ids in insertion order, so
+// every posting list stays sorted without extra work. Removing or re-indexing a post only
+// tombstones its old id; compact() rewrites the postings once enough ids are dead.
+public class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    public record IndexedPost(String postId, Map<String, Integer> termFrequencies) {
+    }
+
+    public record Hit(String postId, double score) {
+    }
+
+    public record Result(List<Hit> hits, int total) {
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        private void add(int doc, int frequency) {
+            if (size == docs.length) {
+                int capacity = size + (size >> 1) + 1;
+                docs = Arrays.copyOf(docs, capacity);
+                frequencies = Arrays.copyOf(frequencies, capacity);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private List<String> postIds = new ArrayList<>(); // doc id -> post id, null once dead
+    private int[] docLengths = new int[1024];
+    private long totalLength;
+    private int liveDocs;
+
+    // Posts written or removed by live updates since beginRebuild(); null when no rebuild runs.
+    // The rebuild's copy of these posts may be stale, so putAllIfAbsent skips them.
+    private Set<String> touchedDuringRebuild;
+
+    public void put(IndexedPost post) {
+        lock.writeLock().lock();
+        try {
+            touchLocked(post.postId());
+            removeLocked(post.postId());
+            addLocked(post);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            touchedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void endRebuild() {
+        lock.writeLock().lock();
+        try {
+            touchedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isRebuilding() {
+        lock.readLock().lock();
+        try {
+            return touchedDuringRebuild != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Used by the rebuild: never overwrites or resurrects a post a live update has touched
+    public void putAllIfAbsent(Collection<IndexedPost> posts) {
+        lock.writeLock().lock();
+        try {
+            for (IndexedPost post : posts) {
+                boolean touched = touchedDuringRebuild != null && touchedDuringRebuild.contains(post.postId());
+                if (!touched && !docIds.containsKey(post.postId())) {
+                    addLocked(post);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String postId) {
+        lock.writeLock().lock();
+        try {
+            touchLocked(postId);
+            removeLocked(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // OR semantics over the query terms, ranked by BM25; returns hits [offset, offset + limit)
+    public Result search(List<String> terms, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0 || terms.isEmpty()) {
+                return new Result(List.of(), 0);
+            }
+            double averageLength = (double) totalLength / liveDocs;
+            Map<Integer, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                // Dead entries inflate df slightly until the next compaction
+                int df = Math.min(list.size, liveDocs);
+                double idf = Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int doc = list.docs[i];
+                    if (postIds.get(doc) == null) {
+                        continue;
+                    }
+                    int tf = list.frequencies[i];
+                    double norm = K1 * (1 - B + B * docLengths[doc] / averageLength);
+                    scores.merge(doc, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                }
+            }
+
+            int wanted = offset + limit;
+            PriorityQueue<Map.Entry<Integer, Double>> heap = new PriorityQueue<>(Map.Entry.comparingByValue());
+            for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                heap.offer(entry);
+                if (heap.size() > wanted) {
+                    heap.poll();
+                }
+            }
+            List<Hit> ranked = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                Map.Entry<Integer, Double> entry = heap.poll();
+                ranked.add(new Hit(postIds.get(entry.getKey()), entry.getValue()));
+            }
+            Collections.reverse(ranked);
+            List<Hit> page = offset >= ranked.size() ? List.of() : ranked.subList(offset, ranked.size());
+            return new Result(List.copyOf(page), scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public double deadRatio() {
+        lock.readLock().lock();
+        try {
+            return postIds.isEmpty() ? 0 : 1 - (double) liveDocs / postIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Renumbers the live documents and drops the tombstones from every posting list
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            int[] remap = new int[postIds.size()];
+            List<String> livePostIds = new ArrayList<>(liveDocs);
+            int[] liveLengths = new int[Math.max(1024, liveDocs)];
+            for (int doc = 0; doc < postIds.size(); doc++) {
+                String postId = postIds.get(doc);
+                if (postId == null) {
+                    remap[doc] = -1;
+                    continue;
+                }
+                remap[doc] = livePostIds.size();
+                liveLengths[livePostIds.size()] = docLengths[doc];
+                docIds.put(postId, livePostIds.size());
+                livePostIds.add(postId);
+            }
+
+            Iterator<Postings> lists = postings.values().iterator();
+            while (lists.hasNext()) {
+                Postings list = lists.next();
+                int kept = 0;
+                for (int i = 0; i < list.size; i++) {
+                    int doc = remap[list.docs[i]];
+                    if (doc >= 0) {
+                        list.docs[kept] = doc;
+                        list.frequencies[kept] = list.frequencies[i];
+                        kept++;
+                    }
+                }
+                list.size = kept;
+                if (kept == 0) {
+                    lists.remove();
+                }
+            }
+            postIds = livePostIds;
+            docLengths = liveLengths;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addLocked(IndexedPost post) {
+        if (post.termFrequencies().isEmpty()) {
+            return;
+        }
+        int doc = postIds.size();
+        postIds.add(post.postId());
+        docIds.put(post.postId(), doc);
+        if (doc == docLengths.length) {
+            docLengths = Arrays.copyOf(docLengths, doc * 2);
+        }
+        int length = 0;
+        for (Map.Entry<String, Integer> term : post.termFrequencies().entrySet()) {
+            postings.computeIfAbsent(term.getKey(), key -> new Postings()).add(doc, term.getValue());
+            length += term.getValue();
+        }
+        docLengths[doc] = length;
+        totalLength += length;
+        liveDocs++;
+    }
+
+    private void touchLocked(String postId) {
+        if (touchedDuringRebuild != null) {
+            touchedDuringRebuild.add(postId);
+        }
+    }
+
+    private void removeLocked(String postId) {
+        Integer doc = docIds.remove(postId);
+        if (doc == null) {
+            return;
+        }
+        postIds.set(doc, null);
+        totalLength -= docLengths[doc];
+        liveDocs--;
+    }
+}
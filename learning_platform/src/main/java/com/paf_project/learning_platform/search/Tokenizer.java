@@ -0,0 +1,61 @@
+package com.paf_project.learning_platform.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Splits text into lowercase letter/digit runs. "#word" yields the hashtag term "#word";
+// in documents it also yields "word" so plain queries still find hashtagged posts.
+public final class Tokenizer {
+
+    private static final int MIN_LENGTH = 2;
+    private static final int MAX_LENGTH = 40;
+
+    private Tokenizer() {
+    }
+
+    public static Map<String, Integer> termFrequencies(String text) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        for (String term : tokenize(text, true)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+
+    public static List<String> queryTerms(String query) {
+        return tokenize(query, false).stream().distinct().toList();
+    }
+
+    private static List<String> tokenize(String text, boolean expandHashtags) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int i = 0;
+        while (i < lower.length()) {
+            if (!Character.isLetterOrDigit(lower.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < lower.length() && Character.isLetterOrDigit(lower.charAt(i))) {
+                i++;
+            }
+            String word = lower.substring(start, i);
+            if (word.length() < MIN_LENGTH || word.length() > MAX_LENGTH) {
+                continue;
+            }
+            boolean hashtag = start > 0 && lower.charAt(start - 1) == '#';
+            if (hashtag) {
+                terms.add("#" + word);
+            }
+            if (!hashtag || expandHashtags) {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+}
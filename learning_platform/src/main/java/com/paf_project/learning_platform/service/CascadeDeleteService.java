@@ -0,0 +1,145 @@
+package com.paf_project.learning_platform.service;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.paf_project.learning_platform.model.CascadeDeleteTask;
+import com.paf_project.learning_platform.model.Comment;
+import com.paf_project.learning_platform.model.CommentLike;
+import com.paf_project.learning_platform.model.CommentReply;
+import com.paf_project.learning_platform.model.Like;
+import com.paf_project.learning_platform.model.MediaModel;
+import com.paf_project.learning_platform.model.Notification;
+import com.paf_project.learning_platform.model.SavedPost;
+import com.paf_project.learning_platform.model.TimelineEntry;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Background removal of everything that hangs off a deleted post or comment. Dependents go in
+// batches of ids followed by one deleteMany, so no single write holds a large collection for long.
+// Every step is idempotent: a task whose worker died is leased again and simply rerun.
+@Service
+public class CascadeDeleteService {
+
+    private static final Logger log = LoggerFactory.getLogger(CascadeDeleteService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private LikedPostsCache likedPostsCache;
+
+    @Value("${cascade.delete.batch-size:500}")
+    private int batchSize;
+
+    @Value("${cascade.delete.lease-minutes:10}")
+    private long leaseMinutes;
+
+    public void enqueuePost(String postId) {
+        mongoTemplate.insert(new CascadeDeleteTask(CascadeDeleteTask.TargetType.POST, postId));
+    }
+
+    public void enqueueComment(String commentId) {
+        mongoTemplate.insert(new CascadeDeleteTask(CascadeDeleteTask.TargetType.COMMENT, commentId));
+    }
+
+    @Scheduled(fixedDelayString = "${cascade.delete.interval-ms:2000}")
+    public void processQueue() {
+        CascadeDeleteTask task;
+        while ((task = lease()) != null) {
+            try {
+                if (task.getTargetType() == CascadeDeleteTask.TargetType.POST) {
+                    deletePostDependents(task.getTargetId());
+                } else {
+                    deleteCommentDependents(List.of(task.getTargetId()));
+                }
+                mongoTemplate.remove(Query.query(Criteria.where("_id").is(task.getId())), CascadeDeleteTask.class);
+            } catch (RuntimeException e) {
+                // Left leased, so this pass moves on and a later one retries it once the lease runs out
+                log.warn("Cascade delete of {} {} failed", task.getTargetType(), task.getTargetId(), e);
+            }
+        }
+    }
+
+    private CascadeDeleteTask lease() {
+        Date now = new Date();
+        return mongoTemplate.findAndModify(
+                new Query(new Criteria().orOperator(
+                        Criteria.where("leasedUntil").is(null),
+                        Criteria.where("leasedUntil").lt(now)))
+                        .with(Sort.by("createdAt")),
+                Update.update("leasedUntil", new Date(now.getTime() + Duration.ofMinutes(leaseMinutes).toMillis())),
+                FindAndModifyOptions.options().returnNew(true),
+                CascadeDeleteTask.class);
+    }
+
+    private void deletePostDependents(String postId) {
+        // Comments first, each batch together with its own replies and likes
+        List<Object> commentIds;
+        while (!(commentIds = nextIds(Comment.class, Criteria.where("postId").is(postId))).isEmpty()) {
+            deleteCommentDependents(commentIds.stream().map(Object::toString).collect(Collectors.toList()));
+            deleteIds(Comment.class, commentIds);
+        }
+
+        // Likes are removed here directly, so the likers' cached sets are told as well
+        List<Document> likes;
+        while (!(likes = nextRows(Like.class, Criteria.where("postId").is(postId), "userId")).isEmpty()) {
+            deleteIds(Like.class, likes.stream().map(row -> row.get("_id")).collect(Collectors.toList()));
+            likes.forEach(like -> likedPostsCache.onUnliked(like.getString("userId"), postId));
+        }
+        deleteAll(SavedPost.class, Criteria.where("postId").is(postId));
+        deleteAll(Notification.class, Criteria.where("postId").is(postId));
+        deleteAll(TimelineEntry.class, Criteria.where("postId").is(postId));
+
+        // Shares of the post are posts themselves; each gets its own task before it is removed
+        List<Object> shareIds;
+        while (!(shareIds = nextIds(MediaModel.class, Criteria.where("sharedFromPostId").is(postId))).isEmpty()) {
+            mongoTemplate.insertAll(shareIds.stream()
+                    .map(id -> new CascadeDeleteTask(CascadeDeleteTask.TargetType.POST, id.toString()))
+                    .collect(Collectors.toList()));
+            deleteIds(MediaModel.class, shareIds);
+        }
+    }
+
+    private void deleteCommentDependents(List<String> commentIds) {
+        deleteAll(CommentReply.class, Criteria.where("commentId").in(commentIds));
+        deleteAll(CommentLike.class, Criteria.where("commentId").in(commentIds));
+    }
+
+    private void deleteAll(Class<?> type, Criteria criteria) {
+        List<Object> ids;
+        while (!(ids = nextIds(type, criteria)).isEmpty()) {
+            deleteIds(type, ids);
+        }
+    }
+
+    private List<Object> nextIds(Class<?> type, Criteria criteria) {
+        return nextRows(type, criteria).stream()
+                .map(row -> row.get("_id"))
+                .collect(Collectors.toList());
+    }
+
+    private List<Document> nextRows(Class<?> type, Criteria criteria, String... fields) {
+        Query query = Query.query(criteria).limit(batchSize);
+        query.fields().include("_id").include(fields);
+        return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(type));
+    }
+
+    private void deleteIds(Class<?> type, List<Object> ids) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), mongoTemplate.getCollectionName(type));
+    }
+}
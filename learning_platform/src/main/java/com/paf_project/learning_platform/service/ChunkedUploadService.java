@@ -0,0 +1,193 @@
+package com.paf_project.learning_platform.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.paf_project.learning_platform.model.UploadSession;
+import com.paf_project.learning_platform.repository.UploadSessionRepository;
+import com.paf_project.learning_platform.repository.UserRepository;
+import com.paf_project.learning_platform.storage.MediaStorage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.NoSuchElementException;
+
+@Service
+public class ChunkedUploadService {
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MediaBlobService mediaBlobService;
+
+    @Value("${media.upload.staging-dir:${java.io.tmpdir}/learning-platform-uploads}")
+    private Path stagingDir;
+
+    @Value("${media.upload.session-ttl-hours:24}")
+    private long sessionTtlHours;
+
+    @Value("${media.upload.max-video-size:30MB}")
+    private DataSize maxVideoSize;
+
+    @Value("${media.upload.chunk-lease-minutes:10}")
+    private long chunkLeaseMinutes;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    public UploadSession startUpload(String userId, String fileName, String contentType, long totalSize)
+            throws IOException {
+        // Checked up front, since every accepted session can reserve totalSize bytes of staging disk
+        if (totalSize <= 0) {
+            throw new IllegalArgumentException("Upload size must be positive");
+        }
+        if (totalSize > maxVideoSize.toBytes()) {
+            throw new IllegalArgumentException("Video must be under " + maxVideoSize.toMegabytes() + "MB");
+        }
+        if (contentType == null || !contentType.startsWith("video/")) {
+            throw new IllegalArgumentException("Invalid video format");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("Invalid user ID. User does not exist.");
+        }
+        UploadSession session = new UploadSession();
+        session.setUserId(userId);
+        session.setFileName(fileName.replaceAll("[/\\\\]", "_"));
+        session.setContentType(contentType);
+        session.setTotalSize(totalSize);
+        session = uploadSessionRepository.save(session);
+
+        Files.createDirectories(stagingDir);
+        Files.deleteIfExists(stagingFile(session.getId()));
+        Files.createFile(stagingFile(session.getId()));
+        return session;
+    }
+
+    public UploadSession getUpload(String uploadId) {
+        return uploadSessionRepository.findById(uploadId)
+                .orElseThrow(() -> new NoSuchElementException("Upload not found"));
+    }
+
+    // Appends one chunk at the given offset. A client resuming after a failure re-sends from receivedBytes.
+    public UploadSession appendChunk(String uploadId, String userId, long offset, InputStream chunk)
+            throws IOException {
+        UploadSession session = getUpload(uploadId);
+        if (!session.getUserId().equals(userId)) {
+            throw new IllegalArgumentException("Upload belongs to another user");
+        }
+        if (offset != session.getReceivedBytes()) {
+            throw new IllegalStateException("Expected offset " + session.getReceivedBytes());
+        }
+
+        // Claim the offset before touching the file, so two chunks for the same offset never write together.
+        // The lease only guards against a writer that died mid-chunk; it expires and the client re-sends.
+        Date now = new Date();
+        Query claim = Query.query(Criteria.where("_id").is(uploadId)
+                .and("receivedBytes").is(offset)
+                .orOperator(Criteria.where("chunkLeaseUntil").is(null), Criteria.where("chunkLeaseUntil").lt(now)));
+        Update lease = Update.update("chunkLeaseUntil", new Date(now.getTime() + chunkLeaseMinutes * 60_000L));
+        if (mongoTemplate.updateFirst(claim, lease, UploadSession.class).getModifiedCount() == 0) {
+            throw new IllegalStateException("Concurrent chunk for the same upload");
+        }
+
+        long written;
+        try {
+            written = writeChunk(uploadId, offset, session.getTotalSize() - offset, chunk);
+        } catch (IOException | RuntimeException e) {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(uploadId).and("receivedBytes").is(offset)),
+                    new Update().unset("chunkLeaseUntil"), UploadSession.class);
+            throw e;
+        }
+
+        Query query = Query.query(Criteria.where("_id").is(uploadId).and("receivedBytes").is(offset));
+        Update update = new Update()
+                .set("receivedBytes", offset + written)
+                .set("updatedAt", new Date())
+                .unset("chunkLeaseUntil");
+        if (mongoTemplate.updateFirst(query, update, UploadSession.class).getModifiedCount() == 0) {
+            throw new IllegalStateException("Concurrent chunk for the same upload");
+        }
+        session.setReceivedBytes(offset + written);
+        return session;
+    }
+
+    private long writeChunk(String uploadId, long offset, long remaining, InputStream chunk) throws IOException {
+        long written = 0;
+        try (FileChannel out = FileChannel.open(stagingFile(uploadId), StandardOpenOption.WRITE);
+             ReadableByteChannel in = Channels.newChannel(chunk)) {
+            // Drop any tail left by an interrupted chunk before writing at the offset
+            out.truncate(offset);
+            out.position(offset);
+            ByteBuffer buffer = ByteBuffer.allocate(MediaStorage.COPY_BUFFER_SIZE);
+            while (in.read(buffer) >= 0) {
+                buffer.flip();
+                written += buffer.remaining();
+                if (written > remaining) {
+                    throw new IllegalArgumentException("Chunk exceeds declared upload size");
+                }
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
+        return written;
+    }
+
+    // Streams the staged file to media storage and returns the final URL
+    public String completeUpload(String uploadId, String userId, String folder) throws IOException {
+        UploadSession session = getUpload(uploadId);
+        if (!session.getUserId().equals(userId)) {
+            throw new IllegalArgumentException("Upload belongs to another user");
+        }
+        if (session.getReceivedBytes() != session.getTotalSize()) {
+            throw new IllegalStateException("Upload is incomplete");
+        }
+
+        String url = mediaBlobService.store(folder, session.getContentType(), session.getFileName(),
+                new FileSystemResource(stagingFile(uploadId)));
+        discard(uploadId);
+        return url;
+    }
+
+    @Scheduled(fixedDelayString = "${media.upload.cleanup-interval-ms:3600000}")
+    public void removeAbandonedUploads() {
+        Date cutoff = new Date(System.currentTimeMillis() - sessionTtlHours * 3600_000L);
+        for (UploadSession session : uploadSessionRepository.findByUpdatedAtBefore(cutoff)) {
+            try {
+                discard(session.getId());
+            } catch (IOException e) {
+                // Leave it for the next run
+            }
+        }
+    }
+
+    private void discard(String uploadId) throws IOException {
+        Files.deleteIfExists(stagingFile(uploadId));
+        uploadSessionRepository.deleteById(uploadId);
+    }
+
+    private Path stagingFile(String uploadId) {
+        return stagingDir.resolve(uploadId + ".part");
+    }
+}
@@ -1,49 +1,101 @@
 package com.paf_project.learning_platform.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import com.google.cloud.storage.Acl.User;
+import com.paf_project.learning_platform.dto.CursorPageDTO;
+import com.paf_project.learning_platform.dto.LikerDTO;
+import com.paf_project.learning_platform.dto.LikersSummaryDTO;
+import com.paf_project.learning_platform.dto.UserSummaryDTO;
 import com.paf_project.learning_platform.model.CommentLike;
 import com.paf_project.learning_platform.repository.CommentLikeRepo;
-import com.paf_project.learning_platform.repository.UserRepository;
+import com.paf_project.learning_platform.util.PageCursor;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class CommentLikeService {
+    private static final int MAX_LIKERS_LIMIT = 100;
+    private static final int MAX_SUMMARY_LIKERS = 10;
+
     @Autowired
     private CommentLikeRepo commentLikeRepo;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserProfileCache userProfileCache;
 
-    @Transactional
-    public synchronized CommentLike toggleLike(String commentId, String userId) {
-        Optional<CommentLike> existingLike = commentLikeRepo.findByCommentIdAndUserId(commentId, userId);
+    @Autowired
+    private MongoTemplate mongoTemplate;
 
-        if (existingLike.isPresent()) {
-            commentLikeRepo.delete(existingLike.get());
+    // No lock: the atomic remove and the unique (commentId, userId) index decide concurrent toggles
+    public CommentLike toggleLike(String commentId, String userId) {
+        CommentLike removed = mongoTemplate.findAndRemove(
+                Query.query(Criteria.where("commentId").is(commentId).and("userId").is(userId)), CommentLike.class);
+        if (removed != null) {
             return null;
         }
 
-        String userName = userRepository.findById(userId)
-                .map(com.paf_project.learning_platform.model.User::getName)
+        String userName = userProfileCache.get(userId)
+                .map(UserSummaryDTO::getName)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         CommentLike like = new CommentLike();
         like.setCommentId(commentId);
         like.setUserId(userId);
         like.setUserName(userName);
-        return commentLikeRepo.save(like);
+        try {
+            return commentLikeRepo.insert(like);
+        } catch (DuplicateKeyException e) {
+            // A concurrent toggle (e.g. a double-click) liked it first; keep that like
+            return commentLikeRepo.findByCommentIdAndUserId(commentId, userId).orElse(null);
+        }
     }
 
     public List<CommentLike> getLikesByCommentId(String commentId) {
         return commentLikeRepo.findByCommentId(commentId);
     }
 
+    public CursorPageDTO<LikerDTO> getLikers(String commentId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIKERS_LIMIT));
+        // Fetch one extra row to know whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+
+        List<CommentLike> likes;
+        if (cursor == null || cursor.isBlank()) {
+            likes = commentLikeRepo.findLatestLikers(commentId, page);
+        } else {
+            PageCursor position = PageCursor.decode(cursor);
+            likes = commentLikeRepo.findLikersOlderThan(commentId, position.getCreatedAt(), position.getObjectId(), page);
+        }
+
+        String nextCursor = null;
+        if (likes.size() > pageSize) {
+            likes = likes.subList(0, pageSize);
+            CommentLike last = likes.get(pageSize - 1);
+            nextCursor = PageCursor.of(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPageDTO<>(toLikers(likes), nextCursor);
+    }
+
+    public LikersSummaryDTO getLikersSummary(String commentId, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_SUMMARY_LIKERS));
+        List<CommentLike> likes = commentLikeRepo.findLatestLikers(commentId, PageRequest.of(0, size));
+        // Comments keep no like counter; the count is answered from the comment_likers index alone
+        return new LikersSummaryDTO(toLikers(likes), commentLikeRepo.countByCommentId(commentId));
+    }
+
+    private List<LikerDTO> toLikers(List<CommentLike> likes) {
+        return likes.stream()
+                .map(like -> new LikerDTO(like.getUserId(), like.getUserName(), like.getCreatedAt()))
+                .collect(Collectors.toList());
+    }
+
     public long getLikeCount(String commentId) {
         return commentLikeRepo.countByCommentId(commentId);
     }
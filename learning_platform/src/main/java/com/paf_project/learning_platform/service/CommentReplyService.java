@@ -3,10 +3,9 @@ package com.paf_project.learning_platform.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.paf_project.learning_platform.dto.UserSummaryDTO;
 import com.paf_project.learning_platform.model.CommentReply;
-import com.paf_project.learning_platform.model.User;
 import com.paf_project.learning_platform.repository.CommentReplyRepo;
-import com.paf_project.learning_platform.repository.UserRepository;
 
 import java.util.List;
 
@@ -16,10 +15,10 @@ public class CommentReplyService {
     private CommentReplyRepo commentReplyRepo;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserProfileCache userProfileCache;
 
     public CommentReply createReply(String commentId, String userId, String content) {
-        User user = userRepository.findById(userId)
+        UserSummaryDTO user = userProfileCache.get(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         CommentReply reply = new CommentReply();
@@ -1,27 +1,41 @@
 package com.paf_project.learning_platform.service;
 
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import com.paf_project.learning_platform.dto.CommentThreadDTO;
+import com.paf_project.learning_platform.dto.CursorPageDTO;
+import com.paf_project.learning_platform.dto.UserSummaryDTO;
 import com.paf_project.learning_platform.model.Comment;
+import com.paf_project.learning_platform.model.CommentLike;
+import com.paf_project.learning_platform.model.CommentReply;
 import com.paf_project.learning_platform.model.MediaModel;
-import com.paf_project.learning_platform.model.User;
+import com.paf_project.learning_platform.repository.CommentLikeRepo;
 import com.paf_project.learning_platform.repository.CommentRepo;
 import com.paf_project.learning_platform.repository.MediaRepo;
-import com.paf_project.learning_platform.repository.UserRepository;
 import com.paf_project.learning_platform.repository.NotificationRepository;
 import com.paf_project.learning_platform.model.Notification;
+import com.paf_project.learning_platform.util.PageCursor;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 public class CommentService {
+    private static final int MAX_THREAD_LIMIT = 50;
+    private static final int MAX_REPLY_PREVIEW = 10;
+
     @Autowired
     private CommentRepo commentRepo;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserProfileCache userProfileCache;
 
     @Autowired
     private MediaRepo mediaRepo;
@@ -29,9 +43,24 @@ public class CommentService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private PostCounterService postCounterService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CommentLikeRepo commentLikeRepo;
+
+    @Autowired
+    private CascadeDeleteService cascadeDeleteService;
+
     public Comment createComment(String postId, String userId, String content) {
         // Check if user exists
-        User user = userRepository.findById(userId)
+        UserSummaryDTO user = userProfileCache.get(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         // Check if post exists and get its owner
@@ -45,6 +74,8 @@ public class CommentService {
         comment.setUserImage(user.getImageUrl());
         comment.setContent(content);
         Comment savedComment = commentRepo.save(comment);
+        postCounterService.increment(postId, PostCounterService.Counter.COMMENTS);
+        trendingService.record(postId, TrendingService.Event.COMMENT);
 
         // Create notification for the post owner if it's not the same user
         if (!post.getUserId().equals(userId)) {
@@ -68,13 +99,104 @@ public class CommentService {
     }
 
     public void deleteComment(String commentId) {
-        commentRepo.deleteById(commentId);
+        // findAndRemove tells us the post, and only the caller that actually removed it decrements
+        Comment removed = mongoTemplate.findAndRemove(
+                Query.query(Criteria.where("_id").is(commentId)), Comment.class);
+        if (removed != null) {
+            postCounterService.decrement(removed.getPostId(), PostCounterService.Counter.COMMENTS);
+            cascadeDeleteService.enqueueComment(commentId);
+            trendingService.record(removed.getPostId(), TrendingService.Event.COMMENT, -1);
+        }
     }
 
     public List<Comment> getCommentsByPostId(String postId) {
         return commentRepo.findByPostId(postId);
     }
 
+    // One page of a post's comments, newest first, in four queries regardless of page size:
+    // the comments, one replies aggregation, one likes aggregation and the viewer's likes
+    public CursorPageDTO<CommentThreadDTO> getCommentThreads(String postId, String viewerId, String cursor,
+            int limit, int replyPreview) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_THREAD_LIMIT));
+        int previewSize = Math.max(0, Math.min(replyPreview, MAX_REPLY_PREVIEW));
+        // Fetch one extra row to know whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+
+        List<Comment> comments;
+        if (cursor == null || cursor.isBlank()) {
+            comments = commentRepo.findLatestByPostId(postId, page);
+        } else {
+            PageCursor position = PageCursor.decode(cursor);
+            comments = commentRepo.findOlderThanByPostId(postId, position.getCreatedAt(), position.getObjectId(), page);
+        }
+        String nextCursor = null;
+        if (comments.size() > pageSize) {
+            comments = comments.subList(0, pageSize);
+            Comment last = comments.get(pageSize - 1);
+            nextCursor = PageCursor.of(last.getCreatedAt(), last.getId()).encode();
+        }
+        if (comments.isEmpty()) {
+            return new CursorPageDTO<>(List.of(), null);
+        }
+
+        List<String> commentIds = comments.stream().map(Comment::getId).collect(Collectors.toList());
+        Map<String, Long> replyCounts = new HashMap<>();
+        Map<String, List<CommentReply>> replyPreviews = new HashMap<>();
+        loadReplies(commentIds, previewSize, replyCounts, replyPreviews);
+        Map<String, Long> likeCounts = countCommentLikes(commentIds);
+        Set<String> liked = viewerId == null || viewerId.isBlank()
+                ? Set.of()
+                : commentLikeRepo.findByUserIdAndCommentIdIn(viewerId, commentIds).stream()
+                        .map(CommentLike::getCommentId)
+                        .collect(Collectors.toSet());
+
+        List<CommentThreadDTO> threads = comments.stream().map(comment -> {
+            CommentThreadDTO thread = new CommentThreadDTO();
+            thread.setComment(comment);
+            thread.setReplyCount(replyCounts.getOrDefault(comment.getId(), 0L));
+            thread.setLikeCount(likeCounts.getOrDefault(comment.getId(), 0L));
+            thread.setHasLiked(liked.contains(comment.getId()));
+            thread.setReplies(replyPreviews.getOrDefault(comment.getId(), List.of()));
+            return thread;
+        }).collect(Collectors.toList());
+        return new CursorPageDTO<>(threads, nextCursor);
+    }
+
+    // Reply count and the oldest replies per comment in one pass ($firstN needs MongoDB 5.2+)
+    private void loadReplies(List<String> commentIds, int previewSize,
+            Map<String, Long> counts, Map<String, List<CommentReply>> previews) {
+        Document group = new Document("_id", "$commentId").append("count", new Document("$sum", 1));
+        if (previewSize > 0) {
+            group.append("replies", new Document("$firstN",
+                    new Document("input", "$$ROOT").append("n", previewSize)));
+        }
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("commentId", new Document("$in", commentIds))),
+                new Document("$sort", new Document("commentId", 1).append("createdAt", 1)),
+                new Document("$group", group));
+
+        for (Document row : mongoTemplate.getCollection(mongoTemplate.getCollectionName(CommentReply.class))
+                .aggregate(pipeline)) {
+            String commentId = row.getString("_id");
+            counts.put(commentId, ((Number) row.get("count")).longValue());
+            List<Document> replies = row.getList("replies", Document.class, List.of());
+            previews.put(commentId, replies.stream()
+                    .map(reply -> mongoTemplate.getConverter().read(CommentReply.class, reply))
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    private Map<String, Long> countCommentLikes(List<String> commentIds) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("commentId").in(commentIds)),
+                Aggregation.group("commentId").count().as("count"));
+        Map<String, Long> counts = new HashMap<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, CommentLike.class, Document.class)) {
+            counts.put(row.getString("_id"), ((Number) row.get("count")).longValue());
+        }
+        return counts;
+    }
+
     public long getCommentCount(String postId) {
         return commentRepo.countByPostId(postId);
     }
@@ -3,10 +3,9 @@ package com.paf_project.learning_platform.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.paf_project.learning_platform.dto.UserSummaryDTO;
 import com.paf_project.learning_platform.model.Follow;
-import com.paf_project.learning_platform.model.User;
 import com.paf_project.learning_platform.repository.FollowRepository;
-import com.paf_project.learning_platform.repository.UserRepository;
 
 @Service
 public class FollowService {
@@ -15,7 +14,7 @@ public class FollowService {
     private FollowRepository followRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserProfileCache userProfileCache;
 
     @Autowired
     private NotificationService notificationService;
@@ -33,7 +32,7 @@ public class FollowService {
         Follow savedFollow = followRepository.save(follow);
 
         // Create notification for the user being followed
-        User follower = userRepository.findById(followerId)
+        UserSummaryDTO follower = userProfileCache.get(followerId)
                 .orElseThrow(() -> new RuntimeException("Follower user not found"));
 
         notificationService.createNotification(
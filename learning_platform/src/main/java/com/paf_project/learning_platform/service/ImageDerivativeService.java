@@ -0,0 +1,146 @@
+package com.paf_project.learning_platform.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import com.paf_project.learning_platform.model.MediaModel;
+import com.paf_project.learning_platform.storage.MediaStorage;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+// Produces thumbnail and medium-size JPEG variants of post images off the request path
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    private static final String FOLDER = "derivatives";
+
+    @Autowired
+    private MediaStorage mediaStorage;
+
+    @Autowired
+    private MediaBlobService mediaBlobService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${media.derivatives.thumbnail-width:320}")
+    private int thumbnailWidth;
+
+    @Value("${media.derivatives.medium-width:960}")
+    private int mediumWidth;
+
+    // Decoded images cost about 4 bytes per pixel, whatever their size on disk
+    @Value("${media.derivatives.max-pixels:40000000}")
+    private long maxPixels;
+
+    @Async("imageDerivativeExecutor")
+    public void generate(MediaModel post) {
+        if (post.getImageUrls() == null || post.getImageUrls().isEmpty()) {
+            return;
+        }
+
+        List<String> thumbnails = new ArrayList<>();
+        List<String> mediums = new ArrayList<>();
+        List<String> stored = new ArrayList<>();
+        try {
+            for (String imageUrl : post.getImageUrls()) {
+                BufferedImage original;
+                try (InputStream in = mediaStorage.open(mediaStorage.pathFromUrl(imageUrl))) {
+                    original = decode(in);
+                }
+                if (original == null) {
+                    // Format ImageIO can't decode (e.g. webp) or too large; clients keep using the originals
+                    releaseAll(stored);
+                    return;
+                }
+                thumbnails.add(variant(original, imageUrl, thumbnailWidth, stored));
+                mediums.add(variant(original, imageUrl, mediumWidth, stored));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not build image variants for post {}", post.getId(), e);
+            releaseAll(stored);
+            return;
+        }
+
+        Query query = Query.query(Criteria.where("_id").is(post.getId()));
+        Update update = new Update().set("thumbnailUrls", thumbnails).set("mediumUrls", mediums);
+        if (mongoTemplate.updateFirst(query, update, MediaModel.class).getMatchedCount() == 0) {
+            // Post was deleted while we were working
+            releaseAll(stored);
+        }
+    }
+
+    // Reads the dimensions from the header first, so a small file claiming huge dimensions is never decoded
+    BufferedImage decode(InputStream in) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    log.warn("Skipping image variants for a {}x{} image", reader.getWidth(0), reader.getHeight(0));
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private String variant(BufferedImage original, String originalUrl, int width, List<String> stored)
+            throws IOException {
+        if (original.getWidth() <= width) {
+            return originalUrl;
+        }
+        int height = Math.max(1, (int) Math.round((double) original.getHeight() * width / original.getWidth()));
+
+        // JPEG has no alpha channel, so always draw onto an RGB canvas
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(original, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(scaled, "jpg", out);
+        String url = mediaBlobService.store(FOLDER, "image/jpeg", "variant.jpg", new ByteArrayResource(out.toByteArray()));
+        stored.add(url);
+        return url;
+    }
+
+    private void releaseAll(List<String> urls) {
+        urls.forEach(mediaBlobService::release);
+    }
+}
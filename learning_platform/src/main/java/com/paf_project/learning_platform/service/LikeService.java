@@ -1,26 +1,38 @@
 package com.paf_project.learning_platform.service;
 
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import java.util.List;
-import org.springframework.transaction.annotation.Transactional;
 
+import com.paf_project.learning_platform.dto.CursorPageDTO;
+import com.paf_project.learning_platform.dto.LikerDTO;
+import com.paf_project.learning_platform.dto.LikersSummaryDTO;
+import com.paf_project.learning_platform.dto.UserSummaryDTO;
 import com.paf_project.learning_platform.model.Like;
 import com.paf_project.learning_platform.model.MediaModel;
-import com.paf_project.learning_platform.model.User;
 import com.paf_project.learning_platform.repository.LikeRepo;
 import com.paf_project.learning_platform.repository.MediaRepo;
-import com.paf_project.learning_platform.repository.UserRepository;
+import com.paf_project.learning_platform.util.PageCursor;
 
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class LikeService {
+    private static final int MAX_LIKERS_LIMIT = 100;
+    private static final int MAX_SUMMARY_LIKERS = 10;
+
     @Autowired
     private LikeRepo likeRepo;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserProfileCache userProfileCache;
 
     @Autowired
     private MediaRepo mediaRepo;
@@ -28,21 +40,42 @@ public class LikeService {
     @Autowired
     private NotificationService notificationService;
 
-    @Transactional
-    public synchronized Like toggleLike(String postId, String userId) {
-        try {
-            // Check if user has already liked the post
-            Optional<Like> existingLike = likeRepo.findByPostIdAndUserId(postId, userId);
+    @Autowired
+    private PostCounterService postCounterService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private LikeWriteBuffer likeWriteBuffer;
+
+    @Autowired
+    private LikedPostsCache likedPostsCache;
 
-            if (existingLike.isPresent()) {
-                // If like exists, remove it (unlike)
-                likeRepo.delete(existingLike.get());
+    // No lock: the atomic remove and the unique (postId, userId) index decide concurrent toggles,
+    // and counters only move when a like was really removed or inserted
+    public Like toggleLike(String postId, String userId) {
+        if (likeWriteBuffer.isEnabled()) {
+            return toggleBuffered(postId, userId);
+        }
+        try {
+            // If like exists, remove it (unlike)
+            Like removed = mongoTemplate.findAndRemove(
+                    Query.query(Criteria.where("postId").is(postId).and("userId").is(userId)), Like.class);
+
+            if (removed != null) {
+                likedPostsCache.onUnliked(userId, postId);
+                postCounterService.decrement(postId, PostCounterService.Counter.LIKES);
+                trendingService.record(postId, TrendingService.Event.LIKE, -1);
                 return null;
             }
 
             // Check if user exists - only fetch name as it's all we need
-            String userName = userRepository.findById(userId)
-                    .map(User::getName)
+            String userName = userProfileCache.get(userId)
+                    .map(UserSummaryDTO::getName)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
             // Check if post exists and get only userId
@@ -55,7 +88,17 @@ public class LikeService {
             like.setPostId(postId);
             like.setUserId(userId);
             like.setUserName(userName);
-            Like savedLike = likeRepo.save(like);
+            Like savedLike;
+            try {
+                savedLike = likeRepo.insert(like);
+            } catch (DuplicateKeyException e) {
+                // A concurrent toggle (e.g. a double-click) liked it first; keep that like
+                likedPostsCache.onLiked(userId, postId);
+                return likeRepo.findByPostIdAndUserId(postId, userId).orElse(null);
+            }
+            likedPostsCache.onLiked(userId, postId);
+            postCounterService.increment(postId, PostCounterService.Counter.LIKES);
+            trendingService.record(postId, TrendingService.Event.LIKE);
 
             // Create notification only if needed
             if (!postOwnerId.equals(userId)) {
@@ -73,6 +116,20 @@ public class LikeService {
         }
     }
 
+    // Write-behind mode: validation, persistence, counters and notifications happen on flush
+    private Like toggleBuffered(String postId, String userId) {
+        if (!ObjectId.isValid(postId) || !ObjectId.isValid(userId)) {
+            throw new RuntimeException("Error toggling like: invalid post or user ID");
+        }
+        if (!likeWriteBuffer.toggle(postId, userId)) {
+            return null;
+        }
+        Like like = new Like();
+        like.setPostId(postId);
+        like.setUserId(userId);
+        return like;
+    }
+
     public List<Like> getLikesByPostId(String postId) {
         try {
             return likeRepo.findByPostId(postId);
@@ -81,9 +138,56 @@ public class LikeService {
         }
     }
 
+    public CursorPageDTO<LikerDTO> getLikers(String postId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIKERS_LIMIT));
+        // Fetch one extra row to know whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+
+        List<Like> likes;
+        if (cursor == null || cursor.isBlank()) {
+            likes = likeRepo.findLatestLikers(postId, page);
+        } else {
+            PageCursor position = PageCursor.decode(cursor);
+            likes = likeRepo.findLikersOlderThan(postId, position.getCreatedAt(), position.getObjectId(), page);
+        }
+
+        String nextCursor = null;
+        if (likes.size() > pageSize) {
+            likes = likes.subList(0, pageSize);
+            Like last = likes.get(pageSize - 1);
+            nextCursor = PageCursor.of(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPageDTO<>(toLikers(likes), nextCursor);
+    }
+
+    public LikersSummaryDTO getLikersSummary(String postId, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_SUMMARY_LIKERS));
+        List<Like> likes = likeRepo.findLatestLikers(postId, PageRequest.of(0, size));
+        return new LikersSummaryDTO(toLikers(likes), likeTotal(postId));
+    }
+
+    // The post's denormalized likeCount plus anything still buffered, instead of counting likes per load
+    private long likeTotal(String postId) {
+        Query query = Query.query(Criteria.where("_id").is(postId));
+        query.fields().include("likeCount");
+        MediaModel post = mongoTemplate.findOne(query, MediaModel.class);
+        long count = post != null ? post.getLikeCount() : 0;
+        if (likeWriteBuffer.isEnabled()) {
+            count = Math.max(0, count + likeWriteBuffer.pendingDelta(postId));
+        }
+        return count;
+    }
+
+    private List<LikerDTO> toLikers(List<Like> likes) {
+        return likes.stream()
+                .map(like -> new LikerDTO(like.getUserId(), like.getUserName(), like.getCreatedAt()))
+                .collect(Collectors.toList());
+    }
+
     public long getLikeCount(String postId) {
         try {
-            return likeRepo.countByPostId(postId);
+            long count = likeRepo.countByPostId(postId);
+            return likeWriteBuffer.isEnabled() ? count + likeWriteBuffer.pendingDelta(postId) : count;
         } catch (Exception e) {
             throw new RuntimeException("Error getting like count: " + e.getMessage());
         }
@@ -95,12 +199,17 @@ public class LikeService {
                 return false;
             }
 
-            // Simplified validation
-            if (!postId.matches("^[0-9a-fA-F]{24}$") || !userId.matches("^[0-9a-fA-F]{24}$")) {
+            if (!ObjectId.isValid(postId) || !ObjectId.isValid(userId)) {
                 return false;
             }
 
-            return likeRepo.findByPostIdAndUserId(postId, userId).isPresent();
+            if (likeWriteBuffer.isEnabled()) {
+                Optional<Boolean> buffered = likeWriteBuffer.hasLiked(postId, userId);
+                if (buffered.isPresent()) {
+                    return buffered.get();
+                }
+            }
+            return likedPostsCache.hasLiked(userId, postId);
         } catch (Exception e) {
             return false;
         }
@@ -0,0 +1,279 @@
+package com.paf_project.learning_platform.service;
+
+import com.mongodb.bulk.BulkWriteResult;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.paf_project.learning_platform.dto.UserSummaryDTO;
+import com.paf_project.learning_platform.model.Like;
+import com.paf_project.learning_platform.model.MediaModel;
+import com.paf_project.learning_platform.repository.MediaRepo;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Write-behind mode for like toggles (likes.write-behind.enabled). A toggle only flips an in-memory
+// per-(post, user) state; a scheduled flush writes the net changes in one bulk operation, so rapid
+// flip-flops cost nothing. Entries stay visible (pending, then in flight) until Mongo has them,
+// which keeps hasLiked and counts read-your-writes consistent on this instance.
+@Service
+public class LikeWriteBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(LikeWriteBuffer.class);
+
+    private record Key(String postId, String userId) {
+    }
+
+    // persisted: state in Mongo when buffering started; liked: latest state asked for
+    private record Pending(boolean persisted, boolean liked) {
+        Pending flipped() {
+            return new Pending(persisted, !liked);
+        }
+    }
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private MediaRepo mediaRepo;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PostCounterService postCounterService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private LikedPostsCache likedPostsCache;
+
+    @Value("${likes.write-behind.enabled:false}")
+    private boolean enabled;
+
+    private final Map<Key, Pending> pending = new ConcurrentHashMap<>();
+    private final Map<Key, Pending> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong handoffs = new AtomicLong();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Returns the new state for this user
+    public boolean toggle(String postId, String userId) {
+        Key key = new Key(postId, userId);
+        while (true) {
+            Pending updated = pending.computeIfPresent(key, (k, current) -> current.flipped());
+            if (updated != null) {
+                return updated.liked();
+            }
+            // The lookup may hit Mongo, so it runs before compute rather than under the map's bin lock
+            long seen = handoffs.get();
+            boolean liked = stateOutsideBuffer(key);
+            updated = pending.compute(key, (k, current) -> {
+                if (current != null) {
+                    return current.flipped();
+                }
+                return handoffs.get() == seen ? new Pending(liked, !liked) : null;
+            });
+            if (updated != null) {
+                return updated.liked();
+            }
+            // A flush took entries while we looked, so what we read may be stale
+        }
+    }
+
+    // Buffered state for this user, or empty when Mongo is authoritative
+    public Optional<Boolean> hasLiked(String postId, String userId) {
+        Key key = new Key(postId, userId);
+        Pending state = pending.get(key);
+        if (state == null) {
+            state = inFlight.get(key);
+        }
+        return Optional.ofNullable(state).map(Pending::liked);
+    }
+
+    // Net change not yet in the likes collection; the buffer is small, so a scan is cheap
+    public long pendingDelta(String postId) {
+        return pendingDeltas(Set.of(postId)).getOrDefault(postId, 0L);
+    }
+
+    public Map<String, Long> pendingDeltas(Set<String> postIds) {
+        Set<Key> keys = new HashSet<>(inFlight.keySet());
+        keys.addAll(pending.keySet());
+        Map<String, Long> deltas = new HashMap<>();
+        for (Key key : keys) {
+            if (!postIds.contains(key.postId())) {
+                continue;
+            }
+            Pending flushing = inFlight.get(key);
+            Pending latest = pending.getOrDefault(key, flushing);
+            if (latest == null) {
+                continue; // flushed while we were looking
+            }
+            boolean before = flushing != null ? flushing.persisted() : latest.persisted();
+            if (before != latest.liked()) {
+                deltas.merge(key.postId(), latest.liked() ? 1L : -1L, Long::sum);
+            }
+        }
+        return deltas;
+    }
+
+    // Adds buffered likes to the denormalized likeCount, which only catches up after the flush,
+    // so the acting user sees their own toggle in feeds and cards. Shares' resolved originals included.
+    public void applyPendingLikes(Collection<MediaModel> posts) {
+        if (!enabled || (pending.isEmpty() && inFlight.isEmpty())) {
+            return;
+        }
+        List<MediaModel> all = new ArrayList<>(posts);
+        posts.stream().map(MediaModel::getOriginalPost).filter(Objects::nonNull).forEach(all::add);
+        Map<String, Long> deltas = pendingDeltas(all.stream().map(MediaModel::getId).collect(Collectors.toSet()));
+        for (MediaModel post : all) {
+            long delta = deltas.getOrDefault(post.getId(), 0L);
+            if (delta != 0) {
+                post.setLikeCount(Math.max(0, post.getLikeCount() + delta));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${likes.write-behind.flush-interval-ms:250}")
+    public void flush() {
+        if (!enabled || pending.isEmpty()) {
+            return;
+        }
+        // Move entries to inFlight atomically per key, so a toggle never sees neither map nor Mongo's new state
+        Map<Key, Pending> batch = new HashMap<>();
+        for (Key key : new ArrayList<>(pending.keySet())) {
+            pending.computeIfPresent(key, (k, state) -> {
+                inFlight.put(k, state);
+                batch.put(k, state);
+                handoffs.incrementAndGet();
+                return null;
+            });
+        }
+
+        try {
+            write(batch);
+        } catch (RuntimeException e) {
+            // The bulk writes are idempotent upserts/removes, so the batch is simply retried next time
+            log.error("Failed to flush {} buffered likes", batch.size(), e);
+            batch.forEach((key, failed) -> pending.merge(key, failed,
+                    (newer, older) -> new Pending(older.persisted(), newer.liked())));
+        } finally {
+            batch.forEach(inFlight::remove);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void write(Map<Key, Pending> batch) {
+        Map<Key, Pending> changes = batch.entrySet().stream()
+                .filter(entry -> entry.getValue().liked() != entry.getValue().persisted())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        Set<String> postIds = changes.keySet().stream().map(Key::postId).collect(Collectors.toSet());
+        Set<String> userIds = changes.keySet().stream().map(Key::userId).collect(Collectors.toSet());
+        Map<String, String> postOwners = mediaRepo.findAllById(postIds).stream()
+                .collect(Collectors.toMap(MediaModel::getId, MediaModel::getUserId));
+        Map<String, UserSummaryDTO> users = userProfileCache.getAll(userIds);
+
+        // Upserts go first, so an upsert's index in the bulk result is its index in upserted
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Like.class);
+        List<Key> upserted = new ArrayList<>();
+        List<Key> removed = new ArrayList<>();
+        for (Map.Entry<Key, Pending> change : changes.entrySet()) {
+            Key key = change.getKey();
+            if (!change.getValue().liked()) {
+                removed.add(key);
+                continue;
+            }
+            UserSummaryDTO user = users.get(key.userId());
+            if (user == null || !postOwners.containsKey(key.postId())) {
+                continue; // the toggle was never validated; drop likes for unknown users or posts
+            }
+            operations.upsert(likeQuery(key), new Update()
+                    .setOnInsert("userName", user.getName())
+                    .setOnInsert("createdAt", new Date()));
+            upserted.add(key);
+        }
+        removed.forEach(key -> operations.remove(likeQuery(key)));
+        if (upserted.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+        BulkWriteResult result = operations.execute();
+
+        // Whatever each operation found, Mongo now has the like for upserted keys and not for removed ones
+        upserted.forEach(key -> likedPostsCache.onLiked(key.userId(), key.postId()));
+        removed.forEach(key -> likedPostsCache.onUnliked(key.userId(), key.postId()));
+        upserted.forEach(inFlight::remove);
+        removed.forEach(inFlight::remove);
+
+        // Only upserts that inserted and removes that deleted change the counts
+        List<Key> inserted = result.getUpserts().stream().map(upsert -> upserted.get(upsert.getIndex())).toList();
+        Map<String, Long> deltas = new HashMap<>();
+        inserted.forEach(key -> deltas.merge(key.postId(), 1L, Long::sum));
+        if (result.getDeletedCount() == removed.size()) {
+            removed.forEach(key -> deltas.merge(key.postId(), -1L, Long::sum));
+        } else {
+            // Someone else removed some of them first and the result does not say which
+            log.warn("Removed {} of {} buffered unlikes; leaving their counters to the reconcile",
+                    result.getDeletedCount(), removed.size());
+        }
+
+        // The likes are durable now; anything below only drifts counters, which the nightly reconcile repairs
+        try {
+            if (!deltas.isEmpty()) {
+                postCounterService.addAll(PostCounterService.Counter.LIKES, deltas);
+            }
+            deltas.forEach((postId, delta) -> trendingService.record(postId, TrendingService.Event.LIKE, delta));
+            for (Key key : inserted) {
+                String ownerId = postOwners.get(key.postId());
+                if (!ownerId.equals(key.userId())) {
+                    notificationService.createNotification(
+                            ownerId,
+                            key.userId(),
+                            "LIKE",
+                            users.get(key.userId()).getName() + " liked your post",
+                            key.postId());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Flushed {} like changes but failed to update counters or notifications", deltas.size(), e);
+        }
+    }
+
+    private Query likeQuery(Key key) {
+        return Query.query(Criteria.where("postId").is(key.postId()).and("userId").is(key.userId()));
+    }
+
+    private boolean stateOutsideBuffer(Key key) {
+        Pending flushing = inFlight.get(key);
+        if (flushing != null) {
+            return flushing.liked();
+        }
+        return likedPostsCache.hasLiked(key.userId(), key.postId());
+    }
+}
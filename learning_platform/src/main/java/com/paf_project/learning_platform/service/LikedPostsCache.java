@@ -0,0 +1,156 @@
+package com.paf_project.learning_platform.service;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.paf_project.learning_platform.model.Like;
+import com.paf_project.learning_platform.repository.LikeRepo;
+import com.paf_project.learning_platform.util.ObjectIdSet;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Which posts each active user has liked, answered from memory. A user's set is loaded on first use
+// with one projected query and then kept current by every like write. Memory is bounded by the total
+// number of liked ids held (max-entries, each user weighing 1 + its set size); least recently used
+// users are evicted to stay under it. Users with more likes than max-per-user are never cached and
+// go to Mongo instead.
+@Service
+public class LikedPostsCache {
+
+    // Updates always follow the Mongo write and are applied under the same lock as the load,
+    // so a load can never install a set that misses a concurrent like
+    private static final class UserLikes {
+        private ObjectIdSet postIds;
+        private boolean loaded;
+        private boolean tooLarge;
+        private int weight; // guarded by users
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private LikeRepo likeRepo;
+
+    @Value("${likes.membership.max-entries:2000000}")
+    private long maxEntries;
+
+    @Value("${likes.membership.max-per-user:50000}")
+    private int maxPerUser;
+
+    private final Map<String, UserLikes> users = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalWeight; // guarded by users
+
+    public boolean hasLiked(String userId, String postId) {
+        UserLikes likes = loaded(userId);
+        synchronized (likes) {
+            if (!likes.tooLarge) {
+                return likes.postIds.contains(new ObjectId(postId));
+            }
+        }
+        return likeRepo.existsByPostIdAndUserId(postId, userId);
+    }
+
+    // Subset of postIds the user has liked: in memory, or a single $in query for uncached users
+    public Set<String> likedAmong(String userId, Collection<String> postIds) {
+        UserLikes likes = loaded(userId);
+        synchronized (likes) {
+            if (!likes.tooLarge) {
+                return postIds.stream()
+                        .filter(postId -> ObjectId.isValid(postId) && likes.postIds.contains(new ObjectId(postId)))
+                        .collect(Collectors.toSet());
+            }
+        }
+        return likeRepo.findByUserIdAndPostIdIn(userId, postIds).stream()
+                .map(Like::getPostId)
+                .collect(Collectors.toSet());
+    }
+
+    // Call after the like has been written to Mongo
+    public void onLiked(String userId, String postId) {
+        UserLikes likes = cached(userId);
+        if (likes != null) {
+            synchronized (likes) {
+                if (likes.loaded && !likes.tooLarge && likes.postIds.add(new ObjectId(postId))) {
+                    reweigh(userId, likes);
+                }
+            }
+        }
+    }
+
+    // Call after the like has been removed from Mongo
+    public void onUnliked(String userId, String postId) {
+        UserLikes likes = cached(userId);
+        if (likes != null) {
+            synchronized (likes) {
+                if (likes.loaded && !likes.tooLarge && likes.postIds.remove(new ObjectId(postId))) {
+                    reweigh(userId, likes);
+                }
+            }
+        }
+    }
+
+    private UserLikes cached(String userId) {
+        synchronized (users) {
+            return users.get(userId);
+        }
+    }
+
+    private UserLikes loaded(String userId) {
+        UserLikes likes = entry(userId);
+        synchronized (likes) {
+            if (!likes.loaded) {
+                Query query = Query.query(Criteria.where("userId").is(userId)).limit(maxPerUser + 1);
+                query.fields().include("postId").exclude("_id");
+                List<Like> rows = mongoTemplate.find(query, Like.class);
+                if (rows.size() > maxPerUser) {
+                    likes.tooLarge = true;
+                } else {
+                    likes.postIds = new ObjectIdSet(rows.size());
+                    rows.stream()
+                            .map(Like::getPostId)
+                            .filter(ObjectId::isValid)
+                            .forEach(postId -> likes.postIds.add(new ObjectId(postId)));
+                }
+                likes.loaded = true;
+                reweigh(userId, likes);
+            }
+        }
+        return likes;
+    }
+
+    private UserLikes entry(String userId) {
+        synchronized (users) {
+            UserLikes likes = users.get(userId);
+            if (likes == null) {
+                likes = new UserLikes();
+                users.put(userId, likes);
+                reweigh(userId, likes);
+            }
+            return likes;
+        }
+    }
+
+    // Locks are always taken user first, then users, so this is safe under the user's lock
+    private void reweigh(String userId, UserLikes likes) {
+        int weight = 1 + (likes.postIds != null ? likes.postIds.size() : 0);
+        synchronized (users) {
+            if (users.get(userId) != likes) {
+                return; // evicted meanwhile, so no longer counted
+            }
+            totalWeight += weight - likes.weight;
+            likes.weight = weight;
+            Iterator<UserLikes> eldest = users.values().iterator();
+            while (totalWeight > maxEntries && eldest.hasNext()) {
+                totalWeight -= eldest.next().weight;
+                eldest.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.paf_project.learning_platform.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import com.paf_project.learning_platform.model.MediaBlob;
+import com.paf_project.learning_platform.repository.MediaRepo;
+import com.paf_project.learning_platform.storage.MediaStorage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.UUID;
+
+// Content-addressed, reference-counted media. Identical bytes are uploaded once and
+// the stored object is deleted only when the last reference is released.
+@Service
+public class MediaBlobService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MediaStorage mediaStorage;
+
+    @Autowired
+    private MediaRepo mediaRepository;
+
+    // Returns the URL of the stored content, uploading it only if these bytes are not stored yet
+    public String store(String folder, String contentType, String fileName, InputStreamSource source)
+            throws IOException {
+        // Hashing reads the local temp copy, so a repeat upload costs no network transfer
+        HashedContent content = hash(source);
+
+        // Reserve the entry (or take a reference on an existing one) in a single atomic upsert.
+        // The random suffix gives each incarnation its own path, so a concurrent final release
+        // of an older incarnation can never delete the object we are about to write.
+        String proposedPath = String.format("%s/%s_%s%s", folder, content.hash(),
+                UUID.randomUUID().toString().substring(0, 8), extension(fileName));
+        Update reserve = new Update()
+                .inc("refCount", 1)
+                .set("lastReferencedAt", new Date())
+                .setOnInsert("path", proposedPath)
+                .setOnInsert("contentType", contentType)
+                .setOnInsert("size", content.size())
+                .setOnInsert("ready", false)
+                .setOnInsert("createdAt", new Date());
+        MediaBlob blob = mongoTemplate.findAndModify(byHash(content.hash()), reserve,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), MediaBlob.class);
+
+        if (blob.isReady()) {
+            return blob.getUrl();
+        }
+
+        // First upload of these bytes, or another identical upload still in flight.
+        // Either way the object at this path will hold exactly these bytes.
+        String url;
+        try (InputStream in = source.getInputStream()) {
+            url = mediaStorage.upload(blob.getPath(), contentType, in);
+        } catch (IOException e) {
+            decrement(blob.getId());
+            throw e;
+        }
+        mongoTemplate.updateFirst(byHash(blob.getId()),
+                new Update().set("url", url).set("ready", true), MediaBlob.class);
+        return url;
+    }
+
+    // Drops one reference; deletes the stored object once nothing points at it
+    public void release(String url) {
+        String unreferencedPath = releaseReference(url);
+        if (unreferencedPath != null) {
+            mediaStorage.delete(unreferencedPath);
+        }
+    }
+
+    // Drops one reference and returns the storage path the caller must delete, or null.
+    // Lets background jobs collect paths and delete them in one batch.
+    public String releaseReference(String url) {
+        MediaBlob blob = mongoTemplate.findAndModify(Query.query(Criteria.where("url").is(url)),
+                new Update().inc("refCount", -1),
+                FindAndModifyOptions.options().returnNew(true), MediaBlob.class);
+
+        if (blob == null) {
+            // Uploaded before the registry existed: only delete if no remaining post uses it
+            return mediaRepository.isUrlReferenced(url) ? null : mediaStorage.pathFromUrl(url);
+        }
+        return blob.getRefCount() <= 0 ? removeIfUnreferenced(blob) : null;
+    }
+
+    private void decrement(String hash) {
+        MediaBlob blob = mongoTemplate.findAndModify(byHash(hash), new Update().inc("refCount", -1),
+                FindAndModifyOptions.options().returnNew(true), MediaBlob.class);
+        if (blob != null && blob.getRefCount() <= 0) {
+            String path = removeIfUnreferenced(blob);
+            if (path != null) {
+                mediaStorage.delete(path);
+            }
+        }
+    }
+
+    private String removeIfUnreferenced(MediaBlob blob) {
+        // Only the caller that actually removes the entry deletes the object; a concurrent
+        // store that re-took a reference makes this a no-op
+        Query unreferenced = Query.query(Criteria.where("_id").is(blob.getId()).and("refCount").lte(0));
+        return mongoTemplate.remove(unreferenced, MediaBlob.class).getDeletedCount() > 0 ? blob.getPath() : null;
+    }
+
+    private Query byHash(String hash) {
+        return Query.query(Criteria.where("_id").is(hash));
+    }
+
+    private String extension(String fileName) {
+        String extension = StringUtils.getFilenameExtension(fileName);
+        return extension == null ? "" : "." + extension.toLowerCase();
+    }
+
+    private HashedContent hash(InputStreamSource source) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        long size = 0;
+        byte[] buffer = new byte[MediaStorage.COPY_BUFFER_SIZE];
+        try (InputStream in = source.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+                size += read;
+            }
+        }
+        return new HashedContent(HexFormat.of().formatHex(digest.digest()), size);
+    }
+
+    private record HashedContent(String hash, long size) {
+    }
+}
@@ -0,0 +1,199 @@
+package com.paf_project.learning_platform.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.paf_project.learning_platform.model.MediaBlob;
+import com.paf_project.learning_platform.model.MediaModel;
+import com.paf_project.learning_platform.model.MediaReleaseTask;
+import com.paf_project.learning_platform.repository.MediaReleaseTaskRepository;
+import com.paf_project.learning_platform.storage.MediaStorage;
+import com.paf_project.learning_platform.storage.StoredObject;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Background side of post deletion: drains the release queue in batches and periodically
+// reclaims stored objects that no post references any more.
+@Service
+public class MediaCleanupService {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaCleanupService.class);
+
+    private static final List<String> SWEPT_PREFIXES = List.of("images/", "videos/", "derivatives/");
+
+    @Autowired
+    private MediaReleaseTaskRepository releaseTaskRepository;
+
+    @Autowired
+    private MediaBlobService mediaBlobService;
+
+    @Autowired
+    private MediaStorage mediaStorage;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${media.cleanup.batch-size:100}")
+    private int batchSize;
+
+    @Value("${media.cleanup.orphan-grace-hours:24}")
+    private long orphanGraceHours;
+
+    @Scheduled(fixedDelayString = "${media.cleanup.queue-interval-ms:2000}")
+    public void processReleaseQueue() {
+        List<MediaReleaseTask> tasks = releaseTaskRepository
+                .findAll(PageRequest.of(0, batchSize, Sort.by("createdAt")))
+                .getContent();
+
+        List<String> unreferencedPaths = new ArrayList<>();
+        for (MediaReleaseTask task : tasks) {
+            // Claim before releasing: a crash after this point leaks references (the orphan
+            // sweep reclaims those) but never releases the same reference twice
+            MediaReleaseTask claimed = mongoTemplate.findAndRemove(
+                    Query.query(Criteria.where("_id").is(task.getId())), MediaReleaseTask.class);
+            if (claimed == null) {
+                continue;
+            }
+            try {
+                for (String url : claimed.getUrls()) {
+                    String path = mediaBlobService.releaseReference(url);
+                    if (path != null) {
+                        unreferencedPaths.add(path);
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to release media of post {}", claimed.getPostId(), e);
+            }
+        }
+
+        if (!unreferencedPaths.isEmpty()) {
+            mediaStorage.deleteAll(unreferencedPaths);
+        }
+    }
+
+    @Scheduled(cron = "${media.cleanup.sweep-cron:0 30 3 * * *}")
+    public void sweepOrphans() {
+        Instant cutoff = Instant.now().minus(Duration.ofHours(orphanGraceHours));
+        for (String prefix : SWEPT_PREFIXES) {
+            List<StoredObject> batch = new ArrayList<>(batchSize);
+            mediaStorage.forEachObject(prefix, object -> {
+                // Young objects may belong to a post that is still being created
+                if (object.createdAt().isBefore(cutoff)) {
+                    batch.add(object);
+                }
+                if (batch.size() == batchSize) {
+                    reclaimOrphans(batch, cutoff);
+                    batch.clear();
+                }
+            });
+            if (!batch.isEmpty()) {
+                reclaimOrphans(batch, cutoff);
+            }
+        }
+    }
+
+    private void reclaimOrphans(List<StoredObject> objects, Instant cutoff) {
+        Map<String, String> pathByUrl = new HashMap<>();
+        objects.forEach(object -> pathByUrl.put(mediaStorage.urlFor(object.path()), object.path()));
+
+        Set<String> referenced = referencedUrls(pathByUrl.keySet());
+        List<String> candidates = pathByUrl.entrySet().stream()
+                .filter(entry -> !referenced.contains(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // Only objects whose registry entry this sweep actually removed are deleted; a store or
+        // retain that lands after the reference check keeps its entry, and so its object
+        Date staleBefore = Date.from(cutoff);
+        Set<String> registered = registeredPaths(candidates);
+        List<String> orphans = new ArrayList<>();
+        for (String path : registered) {
+            if (removeStaleBlob(path, staleBefore)) {
+                orphans.add(path);
+            }
+        }
+
+        // Objects with no registry entry (uploaded before it existed) are checked again just before
+        // the delete, in case a post or a new entry picked one up meanwhile
+        List<String> unregistered = candidates.stream()
+                .filter(path -> !registered.contains(path))
+                .collect(Collectors.toList());
+        if (!unregistered.isEmpty()) {
+            Set<String> nowReferenced = referencedUrls(unregistered.stream()
+                    .map(mediaStorage::urlFor)
+                    .collect(Collectors.toList()));
+            Set<String> nowRegistered = registeredPaths(unregistered);
+            unregistered.stream()
+                    .filter(path -> !nowReferenced.contains(mediaStorage.urlFor(path)) && !nowRegistered.contains(path))
+                    .forEach(orphans::add);
+        }
+
+        if (orphans.isEmpty()) {
+            return;
+        }
+        mediaStorage.deleteAll(orphans);
+        log.info("Reclaimed {} orphaned media objects", orphans.size());
+    }
+
+    private Set<String> registeredPaths(Collection<String> paths) {
+        Query query = Query.query(Criteria.where("path").in(paths));
+        query.fields().include("path");
+        return mongoTemplate.find(query, MediaBlob.class).stream()
+                .map(MediaBlob::getPath)
+                .collect(Collectors.toSet());
+    }
+
+    // Removes the entry only if nothing referenced it within the grace period. A reference leaked by
+    // a crash between claiming a release task and releasing it is dropped first. Both writes are
+    // conditional on lastReferencedAt, which every store and retain sets, so a new reference wins.
+    private boolean removeStaleBlob(String path, Date staleBefore) {
+        mongoTemplate.updateFirst(Query.query(staleBlob(path, staleBefore).and("refCount").gt(0)),
+                Update.update("refCount", 0), MediaBlob.class);
+        return mongoTemplate.findAndRemove(Query.query(staleBlob(path, staleBefore).and("refCount").lte(0)),
+                MediaBlob.class) != null;
+    }
+
+    private Criteria staleBlob(String path, Date staleBefore) {
+        return Criteria.where("path").is(path).orOperator(
+                Criteria.where("lastReferencedAt").lt(staleBefore),
+                Criteria.where("lastReferencedAt").exists(false));
+    }
+
+    private Set<String> referencedUrls(Collection<String> urls) {
+        Query query = Query.query(new Criteria().orOperator(
+                Criteria.where("imageUrls").in(urls),
+                Criteria.where("videoUrl").in(urls),
+                Criteria.where("thumbnailUrls").in(urls),
+                Criteria.where("mediumUrls").in(urls)));
+        query.fields().include("imageUrls").include("videoUrl").include("thumbnailUrls").include("mediumUrls");
+
+        Set<String> referenced = new HashSet<>();
+        for (MediaModel post : mongoTemplate.find(query, MediaModel.class)) {
+            Stream.of(post.getImageUrls(), post.getThumbnailUrls(), post.getMediumUrls())
+                    .filter(Objects::nonNull)
+                    .forEach(referenced::addAll);
+            if (post.getVideoUrl() != null) {
+                referenced.add(post.getVideoUrl());
+            }
+        }
+        referenced.retainAll(urls);
+        return referenced;
+    }
+}
@@ -1,6 +1,7 @@
 package com.paf_project.learning_platform.service;
 
 
+import com.paf_project.learning_platform.dto.CursorPageDTO;
 import com.paf_project.learning_platform.model.MediaModel;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -11,8 +12,13 @@ import java.util.Optional;
 public interface MediaService {
     MediaModel createPost(String userId, String description, MultipartFile[] mediaFiles, boolean isVideo) throws IOException;
 
+    // Creates a video post from a completed resumable upload session
+    MediaModel createPostFromUpload(String userId, String description, String uploadId) throws IOException;
+
     List<MediaModel> getAllPosts();
 
+    CursorPageDTO<MediaModel> getFeed(String cursor, int limit);
+
     Optional<MediaModel> getPostById(String id);
 
     void deletePost(String id);
@@ -23,5 +29,8 @@ public interface MediaService {
 
     void sharePost(String originalPostId, String fromUserId, String toUserId);
 
+    // Shares one post with many users in a single bulk insert
+    List<MediaModel> sharePostWithMany(String originalPostId, String fromUserId, List<String> toUserIds);
+
 
 }
\ No newline at end of file
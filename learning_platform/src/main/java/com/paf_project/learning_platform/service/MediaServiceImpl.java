@@ -2,43 +2,97 @@ package com.paf_project.learning_platform.service;
 
 
 
-import com.google.cloud.storage.Blob;
-import com.google.cloud.storage.Bucket;
-import com.google.firebase.cloud.StorageClient;
+import com.paf_project.learning_platform.dto.CursorPageDTO;
 import com.paf_project.learning_platform.model.MediaModel;
-import com.paf_project.learning_platform.model.User;
+import com.paf_project.learning_platform.model.MediaReleaseTask;
+import com.paf_project.learning_platform.model.UploadSession;
+import com.paf_project.learning_platform.repository.MediaReleaseTaskRepository;
 import com.paf_project.learning_platform.repository.MediaRepo;
-import com.paf_project.learning_platform.repository.UserRepository;
+import com.paf_project.learning_platform.util.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
 @Service
 public class MediaServiceImpl implements MediaService {
 
-    @Value("paf-it-c136a.firebasestorage.app")
-    private String bucketName;
+    private static final int MAX_FEED_LIMIT = 50;
 
     @Autowired
-    private UserRepository userRepository;  // ✅ Inject UserRepository to check users
+    private UserProfileCache userProfileCache;  // ✅ Cached profiles to check users
 
 
     @Autowired
     private MediaRepo mediaRepository;
 
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private MediaBlobService mediaBlobService;
+
+    @Autowired
+    @Qualifier("mediaUploadExecutor")
+    private Executor mediaUploadExecutor;
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private MediaReleaseTaskRepository releaseTaskRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private SharedPostResolver sharedPostResolver;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private PostCounterService postCounterService;
+
+    @Autowired
+    private LikeWriteBuffer likeWriteBuffer;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private PostSearchService postSearchService;
+
+    @Autowired
+    private CascadeDeleteService cascadeDeleteService;
+
+    @Value("${media.upload.max-video-size:30MB}")
+    private DataSize maxVideoSize;
+
     @Override
     public MediaModel createPost(String userId, String description, MultipartFile[] mediaFiles, boolean isVideo) throws IOException {
 
         try {
             // ✅ Validate user exists
-            Optional<User> userOpt = userRepository.findById(userId);
-            if (userOpt.isEmpty()) {
+            if (userProfileCache.get(userId).isEmpty()) {
                 throw new IllegalArgumentException("Invalid user ID. User does not exist.");
             }
 
@@ -49,36 +103,62 @@ public class MediaServiceImpl implements MediaService {
 
             if (isVideo) {
                 validateVideo(mediaFiles[0]);
-                String videoUrl = uploadToFirebase(mediaFiles[0], "videos");
+                String videoUrl = uploadMedia(mediaFiles[0], "videos");
                 mediaModel.setVideoUrl(videoUrl);
                 mediaModel.setMediaType(MediaModel.MediaType.VIDEO);
             } else {
                 validateImages(mediaFiles);
-                List<String> imageUrls = new ArrayList<>();
-                for (MultipartFile file : mediaFiles) {
-                    String imageUrl = uploadToFirebase(file, "images");
-                    imageUrls.add(imageUrl);
-                }
-                mediaModel.setImageUrls(imageUrls);
+                mediaModel.setImageUrls(uploadAll(mediaFiles, "images"));
                 mediaModel.setMediaType(MediaModel.MediaType.IMAGE);
             }
 
-            return mediaRepository.save(mediaModel);
+            MediaModel savedPost = mediaRepository.save(mediaModel);
+            timelineService.fanOut(savedPost);
+            postSearchService.index(savedPost);
+            if (savedPost.getMediaType() == MediaModel.MediaType.IMAGE) {
+                imageDerivativeService.generate(savedPost);
+            }
+            return savedPost;
 
         } catch (IOException e) {
-            throw new IOException("Failed to upload media to Firebase: " + e.getMessage());
+            throw new IOException("Failed to upload media: " + e.getMessage());
         }
     }
 
 
+    @Override
+    public MediaModel createPostFromUpload(String userId, String description, String uploadId) throws IOException {
+        if (userProfileCache.get(userId).isEmpty()) {
+            throw new IllegalArgumentException("Invalid user ID. User does not exist.");
+        }
+
+        UploadSession upload = chunkedUploadService.getUpload(uploadId);
+        validateVideo(upload.getTotalSize(), upload.getContentType());
+
+        MediaModel mediaModel = new MediaModel();
+        mediaModel.setUserId(userId);
+        mediaModel.setDescription(description);
+        mediaModel.setCreatedAt(new Date());
+        mediaModel.setVideoUrl(chunkedUploadService.completeUpload(uploadId, userId, "videos"));
+        mediaModel.setMediaType(MediaModel.MediaType.VIDEO);
+
+        MediaModel savedPost = mediaRepository.save(mediaModel);
+        timelineService.fanOut(savedPost);
+        postSearchService.index(savedPost);
+        return savedPost;
+    }
+
     private void validateVideo(MultipartFile file) throws IllegalArgumentException {
         if (file.isEmpty()) {
             throw new IllegalArgumentException("Video file is empty");
         }
-        if (file.getSize() > 30 * 1024 * 1024) { // 30MB limit
-            throw new IllegalArgumentException("Video must be under 30MB");
+        validateVideo(file.getSize(), file.getContentType());
+    }
+
+    private void validateVideo(long size, String contentType) throws IllegalArgumentException {
+        if (size > maxVideoSize.toBytes()) {
+            throw new IllegalArgumentException("Video must be under " + maxVideoSize.toMegabytes() + "MB");
         }
-        String contentType = file.getContentType();
         if (contentType == null || !contentType.startsWith("video/")) {
             throw new IllegalArgumentException("Invalid video format");
         }
@@ -99,19 +179,36 @@ public class MediaServiceImpl implements MediaService {
         }
     }
 
-    private String uploadToFirebase(MultipartFile file, String folder) throws IOException {
-        Bucket bucket = StorageClient.getInstance().bucket(bucketName);
-        String fileName = String.format("%s/%s_%s",
-                folder,
-                UUID.randomUUID(),
-                file.getOriginalFilename());
+    // Uploads run concurrently, so a post costs roughly its slowest upload rather than the sum
+    private List<String> uploadAll(MultipartFile[] files, String folder) throws IOException {
+        List<CompletableFuture<String>> uploads = Arrays.stream(files)
+                .map(file -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return uploadMedia(file, folder);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, mediaUploadExecutor))
+                .toList();
 
-        Blob blob = bucket.create(fileName, file.getBytes(), file.getContentType());
+        try {
+            CompletableFuture.allOf(uploads.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            // Don't leave the uploads that did succeed behind
+            uploads.stream()
+                    .filter(upload -> !upload.isCompletedExceptionally())
+                    .forEach(upload -> mediaBlobService.release(upload.join()));
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw e;
+        }
+        return uploads.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
 
-        // Generate download URL that works directly in browsers
-        return String.format("https://firebasestorage.googleapis.com/v0/b/%s/o/%s?alt=media",
-                bucketName,
-                fileName.replace("/", "%2F"));
+    // Streams from the multipart temp file; the content is never copied onto the heap
+    private String uploadMedia(MultipartFile file, String folder) throws IOException {
+        return mediaBlobService.store(folder, file.getContentType(), file.getOriginalFilename(), file);
     }
 
     @Override
@@ -119,45 +216,66 @@ public class MediaServiceImpl implements MediaService {
         return mediaRepository.findAll();
     }
 
+    @Override
+    public CursorPageDTO<MediaModel> getFeed(String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_LIMIT));
+        // Fetch one extra row to know whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+
+        List<MediaModel> posts;
+        if (cursor == null || cursor.isBlank()) {
+            posts = mediaRepository.findLatest(page);
+        } else {
+            PageCursor position = PageCursor.decode(cursor);
+            posts = mediaRepository.findOlderThan(position.getCreatedAt(), position.getObjectId(), page);
+        }
+        sharedPostResolver.resolve(posts);
+        likeWriteBuffer.applyPendingLikes(posts);
+
+        String nextCursor = null;
+        if (posts.size() > pageSize) {
+            posts = posts.subList(0, pageSize);
+            MediaModel last = posts.get(pageSize - 1);
+            nextCursor = PageCursor.of(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPageDTO<>(posts, nextCursor);
+    }
+
     @Override
     public Optional<MediaModel> getPostById(String id) {
-        return mediaRepository.findById(id);
+        return mediaRepository.findById(id).map(post -> {
+            List<MediaModel> resolved = sharedPostResolver.resolve(List.of(post));
+            likeWriteBuffer.applyPendingLikes(resolved);
+            return resolved.get(0);
+        });
     }
 
     @Override
     public void deletePost(String id) {
-        Optional<MediaModel> postOptional = mediaRepository.findById(id);
-
-        if (postOptional.isPresent()) {
-            MediaModel post = postOptional.get();
-            Bucket bucket = StorageClient.getInstance().bucket(bucketName);
-
-            // 🔥 1. Delete images from Firebase Storage (if images exist)
-            if (post.getImageUrls() != null) {
-                for (String imageUrl : post.getImageUrls()) {
-                    String filePath = extractFilePathFromUrl(imageUrl);
-                    bucket.get(filePath).delete();
-                }
-            }
-
-            // 🔥 2. Delete video from Firebase Storage (if exists)
-            if (post.getVideoUrl() != null) {
-                String filePath = extractFilePathFromUrl(post.getVideoUrl());
-                bucket.get(filePath).delete();
-            }
-
-            // 🔥 3. Finally, delete the post from MongoDB
-            mediaRepository.deleteById(id);
+        // One atomic write removes the post; its media is released by MediaCleanupService and
+        // its comments, likes, saves, notifications, timeline rows and shares by CascadeDeleteService
+        MediaModel post = mongoTemplate.findAndRemove(
+                Query.query(Criteria.where("_id").is(id)), MediaModel.class);
+
+        if (post != null) {
+            releaseTaskRepository.insert(new MediaReleaseTask(post));
+            cascadeDeleteService.enqueuePost(id);
+            trendingService.remove(id);
+            postSearchService.remove(id);
         }
     }
 
     @Override
     public MediaModel updatePostDescription(String id, String description) {
-        Optional<MediaModel> optionalPost = mediaRepository.findById(id);
-        if (optionalPost.isPresent()) {
-            MediaModel post = optionalPost.get();
-            post.setDescription(description);
-            return mediaRepository.save(post);
+        // $set only the description so fields written in the background are never overwritten
+        MediaModel post = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id)),
+                Update.update("description", description),
+                FindAndModifyOptions.options().returnNew(true),
+                MediaModel.class);
+        if (post != null) {
+            postSearchService.index(post);
+            return post;
         } else {
             throw new NoSuchElementException("Post not found with ID: " + id);
         }
@@ -165,30 +283,45 @@ public class MediaServiceImpl implements MediaService {
 
     @Override
     public List<MediaModel> getPostsByUserId(String userId) {
-        return mediaRepository.findByUserId(userId);
+        List<MediaModel> posts = sharedPostResolver.resolve(mediaRepository.findByUserId(userId));
+        likeWriteBuffer.applyPendingLikes(posts);
+        return posts;
     }
 
-    private String extractFilePathFromUrl(String url) {
-        return url.substring(url.indexOf("/o/") + 3, url.indexOf("?alt=media")).replace("%2F", "/");
+    @Override
+    public void sharePost(String originalPostId, String fromUserId, String toUserId) {
+        sharePostWithMany(originalPostId, fromUserId, List.of(toUserId));
     }
 
     @Override
-    public void sharePost(String originalPostId, String fromUserId, String toUserId) {
+    public List<MediaModel> sharePostWithMany(String originalPostId, String fromUserId, List<String> toUserIds) {
+        if (toUserIds == null || toUserIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one recipient is required");
+        }
         MediaModel originalPost = mediaRepository.findById(originalPostId)
                 .orElseThrow(() -> new RuntimeException("Original post not found"));
-
-        MediaModel sharedPost = new MediaModel();
-        sharedPost.setUserId(toUserId); // ❗ shared to another user's wall
-        sharedPost.setDescription(originalPost.getDescription());
-        sharedPost.setImageUrls(originalPost.getImageUrls());
-        sharedPost.setVideoUrl(originalPost.getVideoUrl());
-        sharedPost.setMediaType(originalPost.getMediaType());
-        sharedPost.setCreatedAt(new Date());
-
-        // 👇 Add a small "sharedBy" info at the beginning
-        sharedPost.setDescription("[Shared by User ID: " + fromUserId + "] " + originalPost.getDescription());
-
-        mediaRepository.save(sharedPost);
+        // Re-sharing a share points at the root post, so resolution is always one hop
+        String rootPostId = originalPost.getSharedFromPostId() != null
+                ? originalPost.getSharedFromPostId()
+                : originalPost.getId();
+
+        Date sharedAt = new Date();
+        List<MediaModel> shares = new LinkedHashSet<>(toUserIds).stream()
+                .map(toUserId -> {
+                    MediaModel share = new MediaModel();
+                    share.setUserId(toUserId); // ❗ shared to another user's wall
+                    share.setSharedFromPostId(rootPostId);
+                    share.setSharedByUserId(fromUserId);
+                    share.setCreatedAt(sharedAt);
+                    return share;
+                })
+                .collect(Collectors.toList());
+
+        List<MediaModel> savedShares = mediaRepository.insert(shares);
+        postCounterService.add(rootPostId, PostCounterService.Counter.SHARES, savedShares.size());
+        trendingService.record(rootPostId, TrendingService.Event.SHARE, savedShares.size());
+        savedShares.forEach(timelineService::fanOut);
+        return savedShares;
     }
 
-}
\ No newline at end of file
+}
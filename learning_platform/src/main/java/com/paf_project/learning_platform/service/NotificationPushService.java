@@ -0,0 +1,168 @@
+package com.paf_project.learning_platform.service;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.paf_project.learning_platform.model.Notification;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Server-sent events for notifications. An idle stream is just an async request parked in Tomcat's
+// NIO connector (no thread), writes happen on virtual threads, and Mongo is only asked for unread
+// counts of users who actually have a stream open. Each stream orders its own writes (NotificationStream).
+@Service
+public class NotificationPushService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationPushService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    @Qualifier("notificationPushExecutor")
+    private Executor pushExecutor;
+
+    @Value("${notifications.push.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${notifications.push.max-streams-per-user:5}")
+    private int maxStreamsPerUser;
+
+    // Open streams per user (one per tab), oldest first
+    private final Map<String, List<NotificationStream>> streams = new ConcurrentHashMap<>();
+
+    // Taken before each unread-count query, so a stream can tell a stale count from a fresh one
+    private final AtomicLong countVersions = new AtomicLong();
+
+    public SseEmitter subscribe(String userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitter.onCompletion(() -> unregister(userId, emitter));
+        emitter.onTimeout(emitter::complete); // the browser's EventSource reconnects on its own
+        emitter.onError(e -> unregister(userId, emitter));
+
+        NotificationStream stream = new NotificationStream(emitter, pushExecutor, () -> unregister(userId, emitter));
+        List<NotificationStream> evicted = new ArrayList<>();
+        streams.compute(userId, (k, userStreams) -> {
+            List<NotificationStream> updated = userStreams != null ? userStreams : new CopyOnWriteArrayList<>();
+            updated.add(stream);
+            while (updated.size() > Math.max(1, maxStreamsPerUser)) {
+                evicted.add(updated.remove(0));
+            }
+            return updated;
+        });
+        evicted.forEach(evictedStream -> evictedStream.getEmitter().complete());
+
+        refreshUnreadCount(userId);
+        return emitter;
+    }
+
+    public boolean isConnected(String userId) {
+        return streams.containsKey(userId);
+    }
+
+    // Called by the writer with the notifications it stored; they are saved, so failures only cost the push
+    public void publish(List<Notification> written) {
+        try {
+            pushStored(written);
+        } catch (RuntimeException e) {
+            log.warn("Failed to push {} notifications", written.size(), e);
+        }
+    }
+
+    private void pushStored(List<Notification> written) {
+        List<Notification> online = written.stream()
+                .filter(notification -> isConnected(notification.getRecipientId()))
+                .collect(Collectors.toList());
+        if (online.isEmpty()) {
+            return;
+        }
+
+        // Coalesced events were upserts; send the rolled-up document, once per group
+        Set<String> groupKeys = online.stream()
+                .map(Notification::getGroupKey)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        List<Notification> notifications = online.stream()
+                .filter(notification -> notification.getGroupKey() == null)
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (!groupKeys.isEmpty()) {
+            notifications.addAll(mongoTemplate.find(
+                    Query.query(Criteria.where("groupKey").in(groupKeys)), Notification.class));
+        }
+        notifications.forEach(Notification::summarizeActors);
+
+        Map<String, List<Notification>> byRecipient = notifications.stream()
+                .collect(Collectors.groupingBy(Notification::getRecipientId));
+        long version = countVersions.incrementAndGet();
+        Map<String, Long> counts = unreadCounts(byRecipient.keySet());
+        byRecipient.forEach((userId, userNotifications) -> send(userId, userNotifications,
+                counts.getOrDefault(userId, 0L), version));
+    }
+
+    // After reads and deletes; runs off the caller's thread and only for connected users
+    public void refreshUnreadCount(String userId) {
+        if (!isConnected(userId)) {
+            return;
+        }
+        pushExecutor.execute(() -> {
+            try {
+                long version = countVersions.incrementAndGet();
+                long count = mongoTemplate.count(
+                        Query.query(Criteria.where("recipientId").is(userId).and("isRead").is(false)),
+                        Notification.class);
+                send(userId, List.of(), count, version);
+            } catch (RuntimeException e) {
+                log.warn("Failed to push unread count to {}", userId, e);
+            }
+        });
+    }
+
+    @Scheduled(fixedRateString = "${notifications.push.heartbeat-ms:25000}")
+    public void heartbeat() {
+        streams.values().forEach(userStreams -> userStreams.forEach(NotificationStream::heartbeat));
+    }
+
+    private Map<String, Long> unreadCounts(Set<String> userIds) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("recipientId").in(userIds).and("isRead").is(false)),
+                Aggregation.group("recipientId").count().as("count"));
+        Map<String, Long> counts = new HashMap<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, Notification.class, Document.class)) {
+            counts.put(row.getString("_id"), ((Number) row.get("count")).longValue());
+        }
+        return counts;
+    }
+
+    private void send(String userId, List<Notification> notifications, long unreadCount, long countVersion) {
+        List<NotificationStream> userStreams = streams.get(userId);
+        if (userStreams == null) {
+            return;
+        }
+        for (NotificationStream stream : userStreams) {
+            stream.push(notifications, unreadCount, countVersion);
+        }
+    }
+
+    private void unregister(String userId, SseEmitter emitter) {
+        streams.computeIfPresent(userId, (k, userStreams) -> {
+            userStreams.removeIf(stream -> stream.getEmitter() == emitter);
+            return userStreams.isEmpty() ? null : userStreams;
+        });
+    }
+}
@@ -2,13 +2,16 @@ package com.paf_project.learning_platform.service;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import com.paf_project.learning_platform.model.Notification;
-import com.paf_project.learning_platform.model.User;
 import com.paf_project.learning_platform.repository.NotificationRepository;
-import com.paf_project.learning_platform.repository.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -17,32 +20,38 @@ public class NotificationService {
     private NotificationRepository notificationRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private NotificationWriter notificationWriter;
 
-    public void createNotification(String recipientId, String senderId, String type, String content, String postId) {
-        // Get sender's information
-        User sender = userRepository.findById(senderId)
-                .orElseThrow(() -> new RuntimeException("Sender not found"));
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private NotificationPushService notificationPushService;
 
+    // Returns once the notification is queued; the sender's name and image are filled in by the writer
+    public void createNotification(String recipientId, String senderId, String type, String content, String postId) {
         Notification notification = new Notification();
         notification.setRecipientId(recipientId);
         notification.setSenderId(senderId);
-        notification.setSenderName(sender.getName());
-        notification.setSenderImageUrl(sender.getImageUrl());
         notification.setType(type);
         notification.setContent(content);
         notification.setPostId(postId);
         notification.setRead(false);
         notification.onCreate();
-        notificationRepository.save(notification);
+        notificationWriter.submit(notification);
     }
 
     public List<Notification> getNotifications(String userId) {
-        return notificationRepository.findByRecipientIdOrderByCreatedAtDesc(userId);
+        return summarize(notificationRepository.findByRecipientIdOrderByCreatedAtDesc(userId));
     }
 
     public List<Notification> getUnreadNotifications(String userId) {
-        return notificationRepository.findByRecipientIdAndIsReadFalseOrderByCreatedAtDesc(userId);
+        return summarize(notificationRepository.findByRecipientIdAndIsReadFalseOrderByCreatedAtDesc(userId));
+    }
+
+    private List<Notification> summarize(List<Notification> notifications) {
+        notifications.forEach(Notification::summarizeActors);
+        return notifications;
     }
 
     public long getUnreadCount(String userId) {
@@ -50,17 +59,53 @@ public class NotificationService {
     }
 
     public void markAsRead(String notificationId) {
-        notificationRepository.findById(notificationId).ifPresent(notification -> {
-            notification.setRead(true);
-            notificationRepository.save(notification);
-        });
+        // findAndModify so we know whose unread count changed
+        Notification updated = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(notificationId).and("isRead").is(false)),
+                Update.update("isRead", true),
+                Notification.class);
+        if (updated != null) {
+            notificationPushService.refreshUnreadCount(updated.getRecipientId());
+        }
+    }
+
+    // Each bulk operation below is a single updateMulti/deleteMany and returns how many documents changed
+
+    public long markAllAsRead(String userId) {
+        long modified = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("recipientId").is(userId).and("isRead").is(false)),
+                Update.update("isRead", true),
+                Notification.class).getModifiedCount();
+        if (modified > 0) {
+            notificationPushService.refreshUnreadCount(userId);
+        }
+        return modified;
+    }
+
+    // Scoped to the recipient so one user cannot mark another user's notifications
+    public long markAsRead(String userId, List<String> notificationIds) {
+        if (notificationIds == null || notificationIds.isEmpty()) {
+            return 0;
+        }
+        long modified = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("_id").in(notificationIds)
+                        .and("recipientId").is(userId)
+                        .and("isRead").is(false)),
+                Update.update("isRead", true),
+                Notification.class).getModifiedCount();
+        if (modified > 0) {
+            notificationPushService.refreshUnreadCount(userId);
+        }
+        return modified;
     }
 
-    public void markAllAsRead(String userId) {
-        List<Notification> unreadNotifications = getUnreadNotifications(userId);
-        unreadNotifications.forEach(notification -> {
-            notification.setRead(true);
-            notificationRepository.save(notification);
-        });
+    public long deleteOlderThan(String userId, LocalDateTime cutoff) {
+        long deleted = mongoTemplate.remove(
+                Query.query(Criteria.where("recipientId").is(userId).and("createdAt").lt(cutoff)),
+                Notification.class).getDeletedCount();
+        if (deleted > 0) {
+            notificationPushService.refreshUnreadCount(userId);
+        }
+        return deleted;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,117 @@
+package com.paf_project.learning_platform.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.paf_project.learning_platform.model.Notification;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// One open SSE stream. Writes are queued and drained by at most one task at a time, so sends,
+// heartbeats and count refreshes reach the client in the order they were queued. Unread counts
+// carry the version taken before they were queried; one older than the last count sent is dropped.
+class NotificationStream {
+
+    private record Push(List<Notification> notifications, long unreadCount, long countVersion) {
+    }
+
+    private static final Push HEARTBEAT = new Push(List.of(), -1, -1);
+
+    private final SseEmitter emitter;
+    private final Executor executor;
+    private final Runnable onFailure;
+    private final Queue<Push> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+    private long sentCountVersion; // only touched by the draining task
+
+    NotificationStream(SseEmitter emitter, Executor executor, Runnable onFailure) {
+        this.emitter = emitter;
+        this.executor = executor;
+        this.onFailure = onFailure;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    void push(List<Notification> notifications, long unreadCount, long countVersion) {
+        enqueue(new Push(notifications, unreadCount, countVersion));
+    }
+
+    // Comment lines keep proxies from closing idle streams and reveal clients that went away
+    void heartbeat() {
+        enqueue(HEARTBEAT);
+    }
+
+    private void enqueue(Push push) {
+        if (closed) {
+            return;
+        }
+        pending.add(push);
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (!draining.compareAndSet(false, true)) {
+            return; // the running drain picks the push up
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            draining.set(false);
+            throw e;
+        }
+    }
+
+    private void drain() {
+        try {
+            Push push;
+            while ((push = pending.poll()) != null) {
+                write(push);
+            }
+        } finally {
+            draining.set(false);
+        }
+        // A push queued after the last poll but before the flag was cleared would otherwise wait
+        if (!pending.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    private void write(Push push) {
+        if (closed) {
+            return;
+        }
+        // Builders are single use, hence built per stream
+        List<SseEmitter.SseEventBuilder> events = new ArrayList<>();
+        if (push == HEARTBEAT) {
+            events.add(SseEmitter.event().comment("ping"));
+        }
+        for (Notification notification : push.notifications()) {
+            events.add(SseEmitter.event().name("notification").id(notification.getId()).data(notification));
+        }
+        if (push.countVersion() > sentCountVersion) {
+            sentCountVersion = push.countVersion();
+            events.add(SseEmitter.event().name("unread-count").data(Map.of("count", push.unreadCount())));
+        }
+        try {
+            for (SseEmitter.SseEventBuilder event : events) {
+                emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client disconnected or the stream already completed
+            closed = true;
+            pending.clear();
+            onFailure.run();
+            emitter.completeWithError(e);
+        }
+    }
+}
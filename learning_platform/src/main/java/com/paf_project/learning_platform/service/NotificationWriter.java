@@ -0,0 +1,338 @@
+package com.paf_project.learning_platform.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.paf_project.learning_platform.dto.UserSummaryDTO;
+import com.paf_project.learning_platform.model.Notification;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Writes notifications off the request thread. Requests drop them into a bounded queue and one
+// writer thread inserts them in batches (insertMany), filling in the sender from the profile cache.
+// Backpressure: when the queue is full the caller inserts synchronously, so nothing is dropped.
+// Notifications that could not be stored are retried with exponential backoff, up to max-retries.
+// LIKE and COMMENT notifications on a post are coalesced per recipient and time window into one
+// rolling document (actor count plus the latest actors), updated atomically with a pipeline upsert.
+@Service
+public class NotificationWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationWriter.class);
+
+    private static final Set<String> COALESCED_TYPES = Set.of("LIKE", "COMMENT");
+
+    private record Retry(Notification notification, long dueAt) {
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private NotificationPushService notificationPushService;
+
+    @Value("${notifications.queue.capacity:10000}")
+    private int capacity;
+
+    @Value("${notifications.queue.batch-size:200}")
+    private int batchSize;
+
+    @Value("${notifications.queue.flush-interval-ms:100}")
+    private long flushIntervalMs;
+
+    @Value("${notifications.queue.max-retries:5}")
+    private int maxRetries;
+
+    @Value("${notifications.queue.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+    @Value("${notifications.coalesce.window-minutes:60}")
+    private long coalesceWindowMinutes;
+
+    @Value("${notifications.coalesce.recent-actors:5}")
+    private int recentActors;
+
+    @Value("${notifications.coalesce.max-tracked-actors:1000}")
+    private int maxTrackedActors;
+
+    private BlockingQueue<Notification> queue;
+    private final BlockingQueue<Retry> retries = new PriorityBlockingQueue<>(16, Comparator.comparingLong(Retry::dueAt));
+    // Failed attempts so far, by notification id; entries leave once the notification is stored or given up
+    private final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(capacity);
+        running = true;
+        writer = Thread.ofPlatform().name("notification-writer").daemon().start(this::drain);
+    }
+
+    public void submit(Notification notification) {
+        if (!running || !queue.offer(notification)) {
+            writeOrRetry(new ArrayList<>(List.of(notification)));
+        }
+    }
+
+    // Pending notifications, including those waiting for a retry, are written before the context closes
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // No interrupt: a batch insert in progress is allowed to finish, the next poll times out
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        List<Notification> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        List<Retry> waiting = new ArrayList<>();
+        retries.drainTo(waiting);
+        waiting.forEach(retry -> rest.add(retry.notification()));
+        if (!rest.isEmpty()) {
+            writeOrRetry(rest);
+        }
+        if (!retries.isEmpty()) {
+            log.error("{} notifications could not be stored before shutdown", retries.size());
+        }
+    }
+
+    private void drain() {
+        List<Notification> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Notification first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                takeDueRetries(batch);
+                if (!batch.isEmpty()) {
+                    writeOrRetry(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    private void takeDueRetries(List<Notification> batch) {
+        long now = System.currentTimeMillis();
+        Retry retry;
+        while (batch.size() < batchSize && (retry = retries.peek()) != null && retry.dueAt() <= now) {
+            retries.remove(retry);
+            batch.add(retry.notification());
+        }
+    }
+
+    private void writeOrRetry(List<Notification> batch) {
+        // Ids are assigned up front so the fallback saves and retries are upserts by _id: documents the
+        // ordered insertMany stored before it failed are replaced rather than written a second time
+        for (Notification notification : batch) {
+            if (notification.getId() == null) {
+                notification.setId(new ObjectId().toHexString());
+            }
+        }
+        List<Notification> failed;
+        try {
+            failed = write(batch);
+        } catch (RuntimeException e) {
+            log.error("Notification writer failed on a batch of {}", batch.size(), e);
+            failed = batch;
+        }
+        if (!attempts.isEmpty()) {
+            Set<String> failedIds = failed.stream().map(Notification::getId).collect(Collectors.toSet());
+            batch.stream()
+                    .map(Notification::getId)
+                    .filter(id -> !failedIds.contains(id))
+                    .forEach(attempts::remove);
+        }
+        failed.forEach(this::retryLater);
+    }
+
+    private void retryLater(Notification notification) {
+        int attempt = attempts.merge(notification.getId(), 1, Integer::sum);
+        if (attempt > maxRetries) {
+            attempts.remove(notification.getId());
+            log.error("Giving up on {} notification for {} after {} attempts", notification.getType(),
+                    notification.getRecipientId(), attempt);
+            return;
+        }
+        long delay = retryBackoffMs << Math.min(attempt - 1, 16);
+        retries.add(new Retry(notification, System.currentTimeMillis() + delay));
+    }
+
+    // Returns the notifications that could not be stored
+    private List<Notification> write(List<Notification> batch) {
+        Map<String, UserSummaryDTO> senders = userProfileCache.getAll(batch.stream()
+                .map(Notification::getSenderId)
+                .collect(Collectors.toSet()));
+        List<Notification> known = new ArrayList<>(batch.size());
+        for (Notification notification : batch) {
+            UserSummaryDTO sender = senders.get(notification.getSenderId());
+            if (sender == null) {
+                log.warn("Dropping {} notification from unknown sender {}", notification.getType(),
+                        notification.getSenderId());
+                continue;
+            }
+            notification.setSenderName(sender.getName());
+            notification.setSenderImageUrl(sender.getImageUrl());
+            known.add(notification);
+        }
+        if (known.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Boolean, List<Notification>> split = known.stream()
+                .collect(Collectors.partitioningBy(this::isCoalesced));
+        List<Notification> failed = new ArrayList<>(insert(split.get(false)));
+        failed.addAll(coalesce(split.get(true)));
+        // Ids are assigned before the insert, so only the outcome tells which notifications were stored;
+        // the failed ones are pushed once a retry stores them
+        if (failed.isEmpty()) {
+            notificationPushService.publish(known);
+        } else {
+            Set<String> failedIds = failed.stream().map(Notification::getId).collect(Collectors.toSet());
+            notificationPushService.publish(known.stream()
+                    .filter(notification -> !failedIds.contains(notification.getId()))
+                    .collect(Collectors.toList()));
+        }
+        return failed;
+    }
+
+    private boolean isCoalesced(Notification notification) {
+        return notification.getPostId() != null && COALESCED_TYPES.contains(notification.getType());
+    }
+
+    private List<Notification> insert(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return List.of();
+        }
+        try {
+            mongoTemplate.insert(notifications, Notification.class);
+            return List.of();
+        } catch (RuntimeException e) {
+            // Fall back to one write per notification so one bad document cannot sink the batch
+            log.warn("Batch insert of {} notifications failed, retrying one by one", notifications.size(), e);
+            List<Notification> failed = new ArrayList<>();
+            for (Notification notification : notifications) {
+                try {
+                    mongoTemplate.save(notification);
+                } catch (RuntimeException single) {
+                    log.error("Failed to store notification for {}", notification.getRecipientId(), single);
+                    failed.add(notification);
+                }
+            }
+            return failed;
+        }
+    }
+
+    // Ordered, so several events for the same group in one batch keep their actor order
+    private List<Notification> coalesce(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return List.of();
+        }
+        try {
+            BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Notification.class);
+            for (Notification notification : notifications) {
+                operations.upsert(groupQuery(notification), rollUp(notification));
+            }
+            operations.execute();
+            return List.of();
+        } catch (RuntimeException e) {
+            // The upserts are keyed on groupKey, so replaying one that already applied only repeats its actor
+            log.warn("Bulk upsert of {} coalesced notifications failed, retrying one by one", notifications.size(), e);
+            List<Notification> failed = new ArrayList<>();
+            for (Notification notification : notifications) {
+                try {
+                    mongoTemplate.upsert(groupQuery(notification), rollUp(notification), Notification.class);
+                } catch (RuntimeException single) {
+                    log.error("Failed to store notification for {}", notification.getRecipientId(), single);
+                    failed.add(notification);
+                }
+            }
+            return failed;
+        }
+    }
+
+    private Query groupQuery(Notification notification) {
+        long window = Duration.ofMinutes(Math.max(1, coalesceWindowMinutes)).toSeconds();
+        long bucket = notification.getCreatedAt().toEpochSecond(ZoneOffset.UTC) / window;
+        notification.setGroupKey(String.join("|", notification.getRecipientId(), notification.getType(),
+                notification.getPostId(), Long.toString(bucket)));
+        return Query.query(Criteria.where("groupKey").is(notification.getGroupKey()));
+    }
+
+    // One $set stage: the latest event becomes the visible sender and rolls the document back to the
+    // top as unread; actorCount only grows for senders not yet in actorIds, while that set has room.
+    // Inside a pipeline a string starting with '$' is a field path, so every stored value is a $literal.
+    private AggregationUpdate rollUp(Notification notification) {
+        Document actor = new Document("userId", notification.getSenderId())
+                .append("name", notification.getSenderName())
+                .append("imageUrl", notification.getSenderImageUrl());
+        Document existingActors = new Document("$ifNull", List.of("$recentActors", List.of()));
+        Document actorIds = new Document("$ifNull", List.of("$actorIds", List.of()));
+        Document alreadyCounted = new Document("$in", List.of(literal(notification.getSenderId()), actorIds));
+        Document trackingFull = new Document("$gte", List.of(new Document("$size", actorIds),
+                Math.max(1, maxTrackedActors)));
+        Document notCounted = new Document("$or", List.of(alreadyCounted, trackingFull));
+        Document otherActors = new Document("$filter", new Document("input", existingActors)
+                .append("cond", new Document("$ne", List.of("$$this.userId", literal(notification.getSenderId())))));
+        // Stored the way the mapping layer stores LocalDateTime (system zone), not as UTC
+        Date createdAt = Date.from(notification.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant());
+
+        Document set = new Document("groupKey", literal(notification.getGroupKey()))
+                .append("recipientId", literal(notification.getRecipientId()))
+                .append("type", literal(notification.getType()))
+                .append("postId", literal(notification.getPostId()))
+                .append("senderId", literal(notification.getSenderId()))
+                .append("senderName", literal(notification.getSenderName()))
+                .append("senderImageUrl", literal(notification.getSenderImageUrl()))
+                .append("content", literal(notification.getContent()))
+                .append("isRead", false)
+                .append("createdAt", createdAt)
+                .append("actorCount", new Document("$cond", List.of(notCounted,
+                        new Document("$ifNull", List.of("$actorCount", 1L)),
+                        new Document("$add", List.of(new Document("$ifNull", List.of("$actorCount", 0L)), 1L)))))
+                .append("actorIds", new Document("$cond", List.of(notCounted,
+                        actorIds,
+                        new Document("$concatArrays", List.of(actorIds, literal(List.of(notification.getSenderId())))))))
+                .append("actorCountCapped", new Document("$or", List.of(
+                        new Document("$ifNull", List.of("$actorCountCapped", false)),
+                        new Document("$and", List.of(trackingFull, new Document("$not", List.of(alreadyCounted)))))))
+                .append("recentActors", new Document("$slice", List.of(
+                        new Document("$concatArrays", List.of(literal(List.of(actor)), otherActors)),
+                        Math.max(1, recentActors))));
+        return AggregationUpdate.from(List.of(context -> new Document("$set", set)));
+    }
+
+    private static Document literal(Object value) {
+        return new Document("$literal", value);
+    }
+}
@@ -0,0 +1,96 @@
+package com.paf_project.learning_platform.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.paf_project.learning_platform.dto.PostCardDTO;
+import com.paf_project.learning_platform.dto.UserSummaryDTO;
+import com.paf_project.learning_platform.model.MediaModel;
+import com.paf_project.learning_platform.model.SavedPost;
+import com.paf_project.learning_platform.repository.MediaRepo;
+import com.paf_project.learning_platform.repository.SavedPostRepository;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Hydrates a page of feed cards with a fixed number of $in queries, whatever the page size
+@Service
+public class PostCardService {
+
+    private static final int MAX_CARDS = 100;
+
+    @Autowired
+    private MediaRepo mediaRepository;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private SavedPostRepository savedPostRepository;
+
+    @Autowired
+    private SharedPostResolver sharedPostResolver;
+
+    @Autowired
+    private LikeWriteBuffer likeWriteBuffer;
+
+    @Autowired
+    private LikedPostsCache likedPostsCache;
+
+    public List<PostCardDTO> getCards(List<String> postIds, String viewerId) {
+        if (postIds == null || postIds.isEmpty()) {
+            return List.of();
+        }
+        if (postIds.size() > MAX_CARDS) {
+            throw new IllegalArgumentException("At most " + MAX_CARDS + " posts per request");
+        }
+        Set<String> ids = new LinkedHashSet<>(postIds);
+
+        List<MediaModel> found = sharedPostResolver.resolve(mediaRepository.findAllById(ids));
+        likeWriteBuffer.applyPendingLikes(found);
+        Map<String, MediaModel> posts = found.stream()
+                .collect(Collectors.toMap(MediaModel::getId, post -> post));
+
+        Set<String> userIds = new HashSet<>();
+        posts.values().forEach(post -> {
+            userIds.add(post.getUserId());
+            if (post.getSharedByUserId() != null) {
+                userIds.add(post.getSharedByUserId());
+            }
+            if (post.getOriginalPost() != null) {
+                userIds.add(post.getOriginalPost().getUserId());
+            }
+        });
+        userIds.remove(null);
+        Map<String, UserSummaryDTO> users = userProfileCache.getAll(userIds);
+
+        Set<String> liked = Set.of();
+        Set<String> saved = Set.of();
+        if (viewerId != null && !viewerId.isBlank()) {
+            liked = likedPostsCache.likedAmong(viewerId, ids);
+            saved = savedPostRepository.findByUserIdAndPostIdIn(viewerId, ids).stream()
+                    .map(SavedPost::getPostId)
+                    .collect(Collectors.toSet());
+        }
+
+        List<PostCardDTO> cards = new ArrayList<>();
+        for (String id : ids) {
+            MediaModel post = posts.get(id);
+            if (post == null) {
+                continue;
+            }
+            PostCardDTO card = new PostCardDTO();
+            card.setPost(post);
+            // For a share the card shows the original author, plus who shared it
+            MediaModel content = post.getOriginalPost() != null ? post.getOriginalPost() : post;
+            card.setAuthor(users.get(content.getUserId()));
+            if (post.getSharedByUserId() != null) {
+                card.setSharedBy(users.get(post.getSharedByUserId()));
+            }
+            card.setHasLiked(likeWriteBuffer.hasLiked(id, viewerId).orElse(liked.contains(id)));
+            card.setSaved(saved.contains(id));
+            cards.add(card);
+        }
+        return cards;
+    }
+}
@@ -0,0 +1,161 @@
+package com.paf_project.learning_platform.service;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.paf_project.learning_platform.model.MediaModel;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Denormalized engagement counters on posts, so rendering a card needs no count queries
+@Service
+public class PostCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostCounterService.class);
+
+    public enum Counter {
+        LIKES("likeCount"),
+        COMMENTS("commentCount"),
+        SHARES("shareCount"),
+        SAVES("saveCount");
+
+        private final String field;
+
+        Counter(String field) {
+            this.field = field;
+        }
+
+        public String getField() {
+            return field;
+        }
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${posts.counters.reconcile-batch-size:500}")
+    private int reconcileBatchSize;
+
+    public void increment(String postId, Counter counter) {
+        add(postId, counter, 1);
+    }
+
+    public void decrement(String postId, Counter counter) {
+        add(postId, counter, -1);
+    }
+
+    public void add(String postId, Counter counter, long delta) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(postId)),
+                new Update().inc(counter.getField(), delta),
+                MediaModel.class);
+    }
+
+    // One bulk write for many posts, e.g. a flush of buffered likes
+    public void addAll(Counter counter, Map<String, Long> deltas) {
+        BulkOperations updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MediaModel.class);
+        int changed = 0;
+        for (Map.Entry<String, Long> delta : deltas.entrySet()) {
+            if (delta.getValue() != 0) {
+                updates.updateOne(Query.query(Criteria.where("_id").is(delta.getKey())),
+                        new Update().inc(counter.getField(), delta.getValue()));
+                changed++;
+            }
+        }
+        if (changed > 0) {
+            updates.execute();
+        }
+    }
+
+    // Walks all posts in _id order and rewrites counters that drifted from the source collections.
+    // Each page costs one posts read, four grouped counts and at most one bulk write.
+    // Every $set is guarded on the values read, so increments racing the walk are never lost.
+    @Scheduled(cron = "${posts.counters.reconcile-cron:0 0 4 * * *}")
+    public void reconcile() {
+        ObjectId lastId = null;
+        long fixed = 0;
+        while (true) {
+            Query page = new Query().with(Sort.by("_id")).limit(reconcileBatchSize);
+            if (lastId != null) {
+                page.addCriteria(Criteria.where("_id").gt(lastId));
+            }
+            page.fields().include("likeCount", "commentCount", "shareCount", "saveCount");
+            List<MediaModel> posts = mongoTemplate.find(page, MediaModel.class);
+            if (posts.isEmpty()) {
+                break;
+            }
+
+            List<String> ids = posts.stream().map(MediaModel::getId).collect(Collectors.toList());
+            Map<String, Long> likes = countBy("likes", "postId", ids);
+            Map<String, Long> comments = countBy("comments", "postId", ids);
+            Map<String, Long> saves = countBy("savedposts", "postId", ids);
+            Map<String, Long> shares = countBy("posts", "sharedFromPostId", ids);
+
+            BulkOperations fixes = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MediaModel.class);
+            int drifted = 0;
+            for (MediaModel post : posts) {
+                long likeCount = likes.getOrDefault(post.getId(), 0L);
+                long commentCount = comments.getOrDefault(post.getId(), 0L);
+                long saveCount = saves.getOrDefault(post.getId(), 0L);
+                long shareCount = shares.getOrDefault(post.getId(), 0L);
+                if (post.getLikeCount() != likeCount || post.getCommentCount() != commentCount
+                        || post.getSaveCount() != saveCount || post.getShareCount() != shareCount) {
+                    // Only overwrite the counters we read; a concurrent $inc makes this a no-op
+                    // and the post is picked up again on the next run
+                    fixes.updateOne(Query.query(Criteria.where("_id").is(post.getId()).andOperator(
+                            unchanged("likeCount", post.getLikeCount()),
+                            unchanged("commentCount", post.getCommentCount()),
+                            unchanged("saveCount", post.getSaveCount()),
+                            unchanged("shareCount", post.getShareCount()))), new Update()
+                            .set("likeCount", likeCount)
+                            .set("commentCount", commentCount)
+                            .set("saveCount", saveCount)
+                            .set("shareCount", shareCount));
+                    drifted++;
+                }
+            }
+            if (drifted > 0) {
+                fixes.execute();
+                fixed += drifted;
+            }
+            lastId = new ObjectId(posts.get(posts.size() - 1).getId());
+        }
+        if (fixed > 0) {
+            log.info("Reconciled engagement counters on {} posts", fixed);
+        }
+    }
+
+    // Posts written before the counters existed have no field, which reads back as 0
+    private Criteria unchanged(String field, long value) {
+        return value == 0
+                ? Criteria.where(field).in(0L, 0, null)
+                : Criteria.where(field).is(value);
+    }
+
+    private Map<String, Long> countBy(String collection, String field, List<String> postIds) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where(field).in(postIds)),
+                Aggregation.group(field).count().as("count"));
+        Map<String, Long> counts = new HashMap<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, collection, Document.class)) {
+            counts.put(row.getString("_id"), ((Number) row.get("count")).longValue());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,161 @@
+package com.paf_project.learning_platform.service;
+
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.paf_project.learning_platform.dto.SearchHitDTO;
+import com.paf_project.learning_platform.dto.SearchPageDTO;
+import com.paf_project.learning_platform.model.MediaModel;
+import com.paf_project.learning_platform.search.InvertedIndex;
+import com.paf_project.learning_platform.search.Tokenizer;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+// Full-text search over post descriptions and hashtags, served from an in-process index.
+// The index is rebuilt from Mongo on startup and kept current by MediaServiceImpl.
+@Service
+public class PostSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostSearchService.class);
+
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_RESULTS = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    @Qualifier("searchIndexExecutor")
+    private Executor searchIndexExecutor;
+
+    @Value("${search.rebuild.segments:4}")
+    private int rebuildSegments;
+
+    @Value("${search.rebuild.batch-size:1000}")
+    private int rebuildBatchSize;
+
+    @Value("${search.compact-dead-ratio:0.25}")
+    private double compactDeadRatio;
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    public void index(MediaModel post) {
+        // Shares carry no text of their own
+        if (post.getSharedFromPostId() != null) {
+            return;
+        }
+        index.put(new InvertedIndex.IndexedPost(post.getId(), Tokenizer.termFrequencies(post.getDescription())));
+    }
+
+    public void remove(String postId) {
+        index.remove(postId);
+    }
+
+    public SearchPageDTO search(String query, int page, int size) {
+        List<String> terms = Tokenizer.queryTerms(query);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Query must contain at least one word or hashtag");
+        }
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // long, so a huge page number cannot overflow into a negative offset
+        long offset = (long) Math.max(page, 0) * pageSize;
+        if (offset + pageSize > MAX_RESULTS) {
+            throw new IllegalArgumentException("Only the first " + MAX_RESULTS + " results can be paged through");
+        }
+
+        InvertedIndex.Result result = index.search(terms, (int) offset, pageSize);
+        List<SearchHitDTO> hits = result.hits().stream()
+                .map(hit -> new SearchHitDTO(hit.postId(), hit.score()))
+                .toList();
+        return new SearchPageDTO(hits, result.total(), Math.max(page, 0), pageSize);
+    }
+
+    // Splits the posts into _id (creation time) ranges and streams each range on its own worker
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Query first = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).limit(1);
+        Query last = new Query().with(Sort.by(Sort.Direction.DESC, "_id")).limit(1);
+        first.fields().include("_id");
+        last.fields().include("_id");
+        MediaModel oldest = mongoTemplate.findOne(first, MediaModel.class);
+        MediaModel newest = mongoTemplate.findOne(last, MediaModel.class);
+        if (oldest == null || newest == null) {
+            return;
+        }
+
+        long from = new ObjectId(oldest.getId()).getDate().getTime();
+        long to = new ObjectId(newest.getId()).getDate().getTime() + 1000;
+        long step = Math.max(1000, (to - from) / rebuildSegments + 1);
+        long started = System.currentTimeMillis();
+        index.beginRebuild();
+
+        List<CompletableFuture<Void>> segments = new ArrayList<>();
+        for (long lower = from; lower < to; lower += step) {
+            ObjectId lowerId = ObjectId.getSmallestWithDate(new Date(lower));
+            // The last range is open-ended so posts created during the rebuild are covered too
+            ObjectId upperId = lower + step < to ? ObjectId.getSmallestWithDate(new Date(lower + step)) : null;
+            segments.add(CompletableFuture.runAsync(() -> indexSegment(lowerId, upperId), searchIndexExecutor));
+        }
+
+        CompletableFuture.allOf(segments.toArray(new CompletableFuture[0])).whenComplete((done, error) -> {
+            index.endRebuild();
+            if (error != null) {
+                log.error("Search index rebuild failed", error);
+            } else {
+                log.info("Search index rebuilt with {} posts in {} ms",
+                        index.size(), System.currentTimeMillis() - started);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${search.compact-interval-ms:3600000}")
+    public void compactIfNeeded() {
+        if (!index.isRebuilding() && index.deadRatio() > compactDeadRatio) {
+            index.compact();
+        }
+    }
+
+    private void indexSegment(ObjectId lowerId, ObjectId upperId) {
+        Criteria range = Criteria.where("_id").gte(lowerId);
+        if (upperId != null) {
+            range = range.lt(upperId);
+        }
+        Query query = Query.query(range.and("sharedFromPostId").exists(false).and("description").ne(null));
+        query.fields().include("description");
+        query.cursorBatchSize(rebuildBatchSize);
+
+        List<InvertedIndex.IndexedPost> batch = new ArrayList<>(rebuildBatchSize);
+        try (Stream<MediaModel> posts = mongoTemplate.stream(query, MediaModel.class)) {
+            Iterator<MediaModel> it = posts.iterator();
+            while (it.hasNext()) {
+                MediaModel post = it.next();
+                // Tokenize outside the index lock; only the batch insert is serialized
+                batch.add(new InvertedIndex.IndexedPost(post.getId(), Tokenizer.termFrequencies(post.getDescription())));
+                if (batch.size() == rebuildBatchSize) {
+                    flush(batch);
+                }
+            }
+        }
+        flush(batch);
+    }
+
+    private void flush(List<InvertedIndex.IndexedPost> batch) {
+        index.putAllIfAbsent(batch);
+        batch.clear();
+    }
+}
@@ -0,0 +1,205 @@
+package com.paf_project.learning_platform.service;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.paf_project.learning_platform.model.Comment;
+import com.paf_project.learning_platform.model.CommentLike;
+import com.paf_project.learning_platform.model.CommentReply;
+import com.paf_project.learning_platform.model.Like;
+import com.paf_project.learning_platform.model.Notification;
+import com.paf_project.learning_platform.model.ProfilePropagationTask;
+import com.paf_project.learning_platform.model.User;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+// Copies profile edits into the denormalized userName/userImage/senderName fields (and the
+// actors rolled up into coalesced notifications) in the background. Each collection is walked
+// in chunks along an indexed (user, key) order and every chunk is one updateMany; the resume
+// point is saved after each chunk.
+@Service
+public class ProfilePropagationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfilePropagationService.class);
+
+    private enum Stage {
+        COMMENTS(Comment.class, "userId", "_id", "userName", "userImage"),
+        COMMENT_REPLIES(CommentReply.class, "userId", "_id", "userName", "userImage"),
+        LIKES(Like.class, "userId", "postId", "userName", null), // (userId, postId) is unique
+        COMMENT_LIKES(CommentLike.class, "userId", "_id", "userName", null),
+        NOTIFICATIONS(Notification.class, "senderId", "_id", "senderName", "senderImageUrl"),
+        NOTIFICATION_ACTORS(Notification.class, "recentActors.userId", "_id",
+                "recentActors.$[a].name", "recentActors.$[a].imageUrl", "a.userId");
+
+        private final Class<?> type;
+        private final String userField;
+        private final String keyField;
+        private final String nameField;
+        private final String imageField;
+        private final String arrayFilter; // matches the user's array elements for $[a]
+
+        Stage(Class<?> type, String userField, String keyField, String nameField, String imageField) {
+            this(type, userField, keyField, nameField, imageField, null);
+        }
+
+        Stage(Class<?> type, String userField, String keyField, String nameField, String imageField,
+                String arrayFilter) {
+            this.type = type;
+            this.userField = userField;
+            this.keyField = keyField;
+            this.nameField = nameField;
+            this.imageField = imageField;
+            this.arrayFilter = arrayFilter;
+        }
+
+        private Object key(String value) {
+            return "_id".equals(keyField) ? new ObjectId(value) : value;
+        }
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${users.propagation.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${users.propagation.chunk-pause-ms:50}")
+    private long chunkPauseMs;
+
+    @Value("${users.propagation.lease-minutes:10}")
+    private long leaseMinutes;
+
+    // Starts over with the latest values; a run already in progress notices the new version and stops
+    public void enqueue(User user) {
+        mongoTemplate.findAndModify(
+                Query.query(Criteria.where("userId").is(user.getId()).and("completedAt").is(null)),
+                new Update()
+                        .set("name", user.getName())
+                        .set("imageUrl", user.getImageUrl())
+                        .set("stage", 0)
+                        .set("stageName", Stage.values()[0].name())
+                        .set("lastKey", null)
+                        .set("updatedCount", 0L)
+                        .set("leasedUntil", null)
+                        .inc("version", 1)
+                        .setOnInsert("createdAt", new Date()),
+                FindAndModifyOptions.options().upsert(true),
+                ProfilePropagationTask.class);
+    }
+
+    public Optional<ProfilePropagationTask> getLatest(String userId) {
+        return Optional.ofNullable(mongoTemplate.findOne(
+                Query.query(Criteria.where("userId").is(userId)).with(Sort.by(Sort.Direction.DESC, "createdAt")),
+                ProfilePropagationTask.class));
+    }
+
+    @Scheduled(fixedDelayString = "${users.propagation.interval-ms:5000}")
+    public void processQueue() {
+        ProfilePropagationTask task;
+        while ((task = lease()) != null) {
+            try {
+                run(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Left leased at its last saved chunk; resumed once the lease runs out
+                log.warn("Profile propagation for user {} failed", task.getUserId(), e);
+                return;
+            }
+        }
+    }
+
+    private ProfilePropagationTask lease() {
+        Date now = new Date();
+        return mongoTemplate.findAndModify(
+                new Query(Criteria.where("completedAt").is(null).orOperator(
+                        Criteria.where("leasedUntil").is(null),
+                        Criteria.where("leasedUntil").lt(now)))
+                        .with(Sort.by("createdAt")),
+                Update.update("leasedUntil", leaseEnd()),
+                FindAndModifyOptions.options().returnNew(true),
+                ProfilePropagationTask.class);
+    }
+
+    private void run(ProfilePropagationTask task) throws InterruptedException {
+        Stage[] stages = Stage.values();
+        int stage = task.getStage();
+        String lastKey = task.getLastKey();
+        while (stage < stages.length) {
+            Stage current = stages[stage];
+            Criteria criteria = Criteria.where(current.userField).is(task.getUserId());
+            if (lastKey != null) {
+                criteria = criteria.and(current.keyField).gt(current.key(lastKey));
+            }
+            Query chunk = Query.query(criteria).with(Sort.by(current.keyField)).limit(chunkSize);
+            chunk.fields().include(current.keyField);
+            String collection = mongoTemplate.getCollectionName(current.type);
+            List<Document> rows = mongoTemplate.find(chunk, Document.class, collection);
+
+            long updated = 0;
+            if (rows.isEmpty()) {
+                stage++;
+                lastKey = null;
+            } else {
+                List<Object> ids = rows.stream().map(row -> row.get("_id")).collect(Collectors.toList());
+                Update update = Update.update(current.nameField, task.getName());
+                if (current.imageField != null) {
+                    update.set(current.imageField, task.getImageUrl());
+                }
+                if (current.arrayFilter != null) {
+                    update.filterArray(Criteria.where(current.arrayFilter).is(task.getUserId()));
+                }
+                updated = mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)), update, collection)
+                        .getModifiedCount();
+                lastKey = rows.get(rows.size() - 1).get(current.keyField).toString();
+            }
+
+            if (!saveProgress(task, stage, lastKey, updated)) {
+                log.info("Profile propagation for user {} superseded by a newer edit", task.getUserId());
+                return;
+            }
+            if (!rows.isEmpty()) {
+                Thread.sleep(chunkPauseMs); // throttle so propagation never crowds out live traffic
+            }
+        }
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(task.getId()).and("version").is(task.getVersion())),
+                new Update().set("completedAt", new Date()).set("leasedUntil", null),
+                ProfilePropagationTask.class);
+    }
+
+    // Only the run that owns the current version may move the resume point
+    private boolean saveProgress(ProfilePropagationTask task, int stage, String lastKey, long updated) {
+        Stage[] stages = Stage.values();
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(task.getId()).and("version").is(task.getVersion())),
+                new Update()
+                        .set("stage", stage)
+                        .set("stageName", stage < stages.length ? stages[stage].name() : "DONE")
+                        .set("lastKey", lastKey)
+                        .inc("updatedCount", updated)
+                        .set("leasedUntil", leaseEnd()),
+                ProfilePropagationTask.class).getMatchedCount() > 0;
+    }
+
+    private Date leaseEnd() {
+        return new Date(System.currentTimeMillis() + Duration.ofMinutes(leaseMinutes).toMillis());
+    }
+}
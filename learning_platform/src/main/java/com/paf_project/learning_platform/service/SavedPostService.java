@@ -21,6 +21,12 @@ public class SavedPostService {
     @Autowired
     private MediaRepo mediaRepository;
 
+    @Autowired
+    private SharedPostResolver sharedPostResolver;
+
+    @Autowired
+    private PostCounterService postCounterService;
+
     @Transactional
     public SavedPost toggleSavePost(String userId, String postId) {
         // Check if post exists
@@ -30,14 +36,18 @@ public class SavedPostService {
         // Check if post is already saved
         if (savedPostRepository.existsByUserIdAndPostId(userId, postId)) {
             // Unsave the post
-            savedPostRepository.deleteByUserIdAndPostId(userId, postId);
+            if (savedPostRepository.deleteByUserIdAndPostId(userId, postId) > 0) {
+                postCounterService.decrement(postId, PostCounterService.Counter.SAVES);
+            }
             return null;
         } else {
             // Save the post
             SavedPost savedPost = new SavedPost();
             savedPost.setUserId(userId);
             savedPost.setPostId(postId);
-            return savedPostRepository.save(savedPost);
+            SavedPost saved = savedPostRepository.save(savedPost);
+            postCounterService.increment(postId, PostCounterService.Counter.SAVES);
+            return saved;
         }
     }
 
@@ -49,7 +59,7 @@ public class SavedPostService {
                 .collect(Collectors.toList());
 
         // Fetch the actual posts
-        return mediaRepository.findAllById(savedPostIds);
+        return sharedPostResolver.resolve(mediaRepository.findAllById(savedPostIds));
     }
 
     public boolean isPostSaved(String userId, String postId) {
@@ -0,0 +1,41 @@
+package com.paf_project.learning_platform.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.paf_project.learning_platform.model.MediaModel;
+import com.paf_project.learning_platform.repository.MediaRepo;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Attaches the original post to every share in a page with a single $in lookup
+@Service
+public class SharedPostResolver {
+
+    @Autowired
+    private MediaRepo mediaRepository;
+
+    public <T extends Collection<MediaModel>> T resolve(T posts) {
+        Set<String> originalIds = posts.stream()
+                .map(MediaModel::getSharedFromPostId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (originalIds.isEmpty()) {
+            return posts;
+        }
+
+        Map<String, MediaModel> originals = mediaRepository.findAllById(originalIds).stream()
+                .collect(Collectors.toMap(MediaModel::getId, Function.identity()));
+        posts.forEach(post -> {
+            if (post.getSharedFromPostId() != null) {
+                post.setOriginalPost(originals.get(post.getSharedFromPostId()));
+            }
+        });
+        return posts;
+    }
+}
@@ -0,0 +1,191 @@
+package com.paf_project.learning_platform.service;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import com.paf_project.learning_platform.dto.CursorPageDTO;
+import com.paf_project.learning_platform.model.Follow;
+import com.paf_project.learning_platform.model.MediaModel;
+import com.paf_project.learning_platform.model.TimelineEntry;
+import com.paf_project.learning_platform.model.User;
+import com.paf_project.learning_platform.repository.FollowRepository;
+import com.paf_project.learning_platform.repository.MediaRepo;
+import com.paf_project.learning_platform.repository.TimelineRepository;
+import com.paf_project.learning_platform.repository.UserRepository;
+import com.paf_project.learning_platform.util.PageCursor;
+
+import jakarta.annotation.PostConstruct;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Service
+public class TimelineService {
+
+    private static final int MAX_TIMELINE_LIMIT = 50;
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private static final Comparator<TimelineRow> NEWEST_FIRST = Comparator
+            .comparing(TimelineRow::createdAt)
+            .thenComparing(TimelineRow::postId)
+            .reversed();
+
+    private record TimelineRow(Date createdAt, String postId) {
+    }
+
+    @Autowired
+    private TimelineRepository timelineRepository;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private MediaRepo mediaRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private SharedPostResolver sharedPostResolver;
+
+    @Value("${timeline.fanout.max-followers:10000}")
+    private long maxFanoutFollowers;
+
+    @Value("${timeline.fanout.batch-size:500}")
+    private int fanoutBatchSize;
+
+    // Authors whose posts are merged in at read time instead of being fanned out
+    private final Set<String> highFanoutAuthors = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void loadHighFanoutAuthors() {
+        userRepository.findByHighFanoutTrue().forEach(user -> highFanoutAuthors.add(user.getId()));
+    }
+
+    @Async("timelineExecutor")
+    public void fanOut(MediaModel post) {
+        String authorId = post.getUserId();
+
+        // The author always sees their own post
+        insertEntries(List.of(new TimelineEntry(authorId, post)));
+
+        if (highFanoutAuthors.contains(authorId)) {
+            return;
+        }
+        if (followRepository.countByFollowingId(authorId) > maxFanoutFollowers) {
+            markHighFanout(authorId);
+            return;
+        }
+
+        // Keyset on _id: follows added or removed meanwhile cannot shift later pages
+        PageRequest page = PageRequest.of(0, fanoutBatchSize);
+        List<Follow> followers = followRepository.findFirstFollowers(authorId, page);
+        while (!followers.isEmpty()) {
+            insertEntries(followers.stream()
+                    .map(follow -> new TimelineEntry(follow.getFollowerId(), post))
+                    .collect(Collectors.toList()));
+            if (followers.size() < fanoutBatchSize) {
+                break;
+            }
+            ObjectId lastId = new ObjectId(followers.get(followers.size() - 1).getId());
+            followers = followRepository.findFollowersAfter(authorId, lastId, page);
+        }
+    }
+
+    // Unordered and keyed on (ownerId, postId): rows a retried or repeated fan-out already wrote are
+    // skipped without stopping the rest of the batch
+    private void insertEntries(List<TimelineEntry> entries) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TimelineEntry.class)
+                    .insert(entries)
+                    .execute();
+        } catch (BulkOperationException e) {
+            if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                throw e;
+            }
+        }
+    }
+
+    public CursorPageDTO<MediaModel> getTimeline(String userId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_TIMELINE_LIMIT));
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        PageCursor position = (cursor == null || cursor.isBlank()) ? null : PageCursor.decode(cursor);
+
+        // Materialized rows: one indexed range query on the owner's timeline
+        List<TimelineRow> rows = new ArrayList<>();
+        List<TimelineEntry> entries = position == null
+                ? timelineRepository.findLatest(userId, page)
+                : timelineRepository.findOlderThan(userId, position.getCreatedAt(), position.getId(), page);
+        entries.forEach(entry -> rows.add(new TimelineRow(entry.getCreatedAt(), entry.getPostId())));
+
+        // Posts by followed high-fanout authors are pulled at read time
+        Map<String, MediaModel> byId = new HashMap<>();
+        List<String> pullAuthors = followedHighFanoutAuthors(userId);
+        if (!pullAuthors.isEmpty()) {
+            List<MediaModel> pulled = position == null
+                    ? mediaRepository.findLatestByUserIds(pullAuthors, page)
+                    : mediaRepository.findOlderThanByUserIds(pullAuthors, position.getCreatedAt(),
+                            position.getObjectId(), page);
+            pulled.forEach(post -> {
+                byId.put(post.getId(), post);
+                rows.add(new TimelineRow(post.getCreatedAt(), post.getId()));
+            });
+        }
+
+        rows.sort(NEWEST_FIRST);
+        LinkedHashMap<String, TimelineRow> distinct = new LinkedHashMap<>();
+        rows.forEach(row -> distinct.putIfAbsent(row.postId(), row));
+        List<TimelineRow> pageRows = distinct.values().stream().limit(pageSize).collect(Collectors.toList());
+
+        List<String> missing = pageRows.stream()
+                .map(TimelineRow::postId)
+                .filter(id -> !byId.containsKey(id))
+                .collect(Collectors.toList());
+        mediaRepository.findAllById(missing).forEach(post -> byId.put(post.getId(), post));
+
+        List<MediaModel> posts = pageRows.stream()
+                .map(row -> byId.get(row.postId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        sharedPostResolver.resolve(posts);
+
+        String nextCursor = null;
+        if (distinct.size() > pageSize) {
+            TimelineRow last = pageRows.get(pageRows.size() - 1);
+            nextCursor = PageCursor.of(last.createdAt(), last.postId()).encode();
+        }
+        return new CursorPageDTO<>(posts, nextCursor);
+    }
+
+    private List<String> followedHighFanoutAuthors(String userId) {
+        if (highFanoutAuthors.isEmpty()) {
+            return List.of();
+        }
+        return followRepository.findByFollowerIdAndFollowingIdIn(userId, highFanoutAuthors).stream()
+                .map(Follow::getFollowingId)
+                .collect(Collectors.toList());
+    }
+
+    private void markHighFanout(String authorId) {
+        highFanoutAuthors.add(authorId);
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(authorId)),
+                Update.update("highFanout", true),
+                User.class);
+    }
+}
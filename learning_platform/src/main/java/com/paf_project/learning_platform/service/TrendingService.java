@@ -0,0 +1,183 @@
+package com.paf_project.learning_platform.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.paf_project.learning_platform.dto.TrendingPostDTO;
+import com.paf_project.learning_platform.model.TrendingScore;
+
+import java.time.Clock;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Exponentially time-decayed engagement scores, kept in memory and checkpointed to Mongo.
+// Scores use forward decay: an event at time t adds weight * 2^((t - landmark) / halfLife),
+// so older entries never need touching and ranking is a plain comparison of stored values.
+@Service
+public class TrendingService {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingService.class);
+
+    public enum Event {
+        LIKE(1),
+        COMMENT(3),
+        SHARE(5);
+
+        private final double weight;
+
+        Event(double weight) {
+            this.weight = weight;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${trending.half-life-hours:6}")
+    private double halfLifeHours;
+
+    @Value("${trending.top-k:100}")
+    private int topK;
+
+    @Value("${trending.min-score:0.05}")
+    private double minScore;
+
+    private Clock clock = Clock.systemUTC();
+
+    private final Map<String, Double> scores = new ConcurrentHashMap<>();
+
+    // Writers share the lock; only rebasing the landmark takes it exclusively
+    private final ReentrantReadWriteLock landmarkLock = new ReentrantReadWriteLock();
+    private volatile long landmark = clock.millis();
+
+    private volatile List<TrendingPostDTO> snapshot = List.of();
+
+    public void record(String postId, Event event) {
+        record(postId, event, 1);
+    }
+
+    // A negative count undoes earlier events, e.g. an unlike
+    public void record(String postId, Event event, long count) {
+        if (postId == null || count == 0) {
+            return;
+        }
+        landmarkLock.readLock().lock();
+        try {
+            double delta = event.getWeight() * count * growth(clock.millis());
+            // An undo for a post that already decayed away must not leave a negative score behind
+            scores.compute(postId, (id, current) -> {
+                double updated = (current != null ? current : 0) + delta;
+                return updated > 0 ? updated : null;
+            });
+        } finally {
+            landmarkLock.readLock().unlock();
+        }
+    }
+
+    public void remove(String postId) {
+        scores.remove(postId);
+        snapshot = snapshot.stream()
+                .filter(entry -> !entry.getPostId().equals(postId))
+                .toList();
+    }
+
+    public List<TrendingPostDTO> getTrending(int limit) {
+        List<TrendingPostDTO> current = snapshot;
+        return current.subList(0, Math.max(0, Math.min(limit, current.size())));
+    }
+
+    // Rebuilds the top-K list with a bounded min-heap and drops posts that have decayed away
+    @Scheduled(fixedDelayString = "${trending.refresh-interval-ms:5000}")
+    public void refreshSnapshot() {
+        double decay = 1 / growth(clock.millis());
+        PriorityQueue<Map.Entry<String, Double>> heap = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<String, Double> entry : scores.entrySet()) {
+            if (entry.getValue() * decay < minScore) {
+                // Only if no event landed since it was read
+                scores.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+            heap.offer(Map.entry(entry.getKey(), entry.getValue()));
+            if (heap.size() > topK) {
+                heap.poll();
+            }
+        }
+
+        List<TrendingPostDTO> top = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            Map.Entry<String, Double> entry = heap.poll();
+            top.add(new TrendingPostDTO(entry.getKey(), entry.getValue() * decay));
+        }
+        Collections.reverse(top);
+        snapshot = Collections.unmodifiableList(top);
+    }
+
+    // Moves the landmark to now (keeps the stored values small) and upserts the current scores
+    @Scheduled(fixedDelayString = "${trending.checkpoint-interval-ms:60000}")
+    public void checkpoint() {
+        long now = clock.millis();
+        landmarkLock.writeLock().lock();
+        try {
+            double decay = 1 / growth(now);
+            scores.replaceAll((postId, score) -> score * decay);
+            landmark = now;
+        } finally {
+            landmarkLock.writeLock().unlock();
+        }
+
+        Date checkpointedAt = new Date(now);
+        if (!scores.isEmpty()) {
+            BulkOperations upserts = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TrendingScore.class);
+            scores.forEach((postId, score) -> upserts.upsert(
+                    Query.query(Criteria.where("_id").is(postId)),
+                    new Update().set("score", score).set("updatedAt", checkpointedAt)));
+            upserts.execute();
+        }
+        // Anything not rewritten has decayed away or was deleted
+        mongoTemplate.remove(Query.query(Criteria.where("updatedAt").lt(checkpointedAt)), TrendingScore.class);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        long now = clock.millis();
+        landmarkLock.writeLock().lock();
+        try {
+            landmark = now;
+            for (TrendingScore saved : mongoTemplate.findAll(TrendingScore.class)) {
+                double elapsedHalfLives = (now - saved.getUpdatedAt().getTime()) / halfLifeMillis();
+                double score = saved.getScore() * Math.pow(2, -elapsedHalfLives);
+                if (score >= minScore) {
+                    scores.merge(saved.getId(), score, Double::sum);
+                }
+            }
+        } finally {
+            landmarkLock.writeLock().unlock();
+        }
+        refreshSnapshot();
+        log.info("Restored {} trending scores", scores.size());
+    }
+
+    private double growth(long at) {
+        return Math.pow(2, (at - landmark) / halfLifeMillis());
+    }
+
+    private double halfLifeMillis() {
+        return halfLifeHours * 3_600_000;
+    }
+}
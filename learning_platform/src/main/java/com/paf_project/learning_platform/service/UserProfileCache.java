@@ -0,0 +1,76 @@
+package com.paf_project.learning_platform.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.paf_project.learning_platform.dto.UserSummaryDTO;
+import com.paf_project.learning_platform.model.User;
+import com.paf_project.learning_platform.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Name, image and role by user id for the write paths that only need those. Bounded by size and
+// by time since write; UserService invalidates an entry whenever the profile changes.
+@Service
+public class UserProfileCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${users.profile-cache.max-size:50000}")
+    private long maxSize;
+
+    @Value("${users.profile-cache.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    private Cache<String, UserSummaryDTO> profiles;
+
+    @PostConstruct
+    void init() {
+        profiles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+    }
+
+    // Unknown users are not cached, so a user created later is found straight away
+    public Optional<UserSummaryDTO> get(String userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(profiles.get(userId,
+                id -> userRepository.findById(id).map(UserSummaryDTO::from).orElse(null)));
+    }
+
+    // Misses are loaded together with one findAllById
+    public Map<String, UserSummaryDTO> getAll(Collection<String> userIds) {
+        Set<String> ids = userIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        return profiles.getAll(ids, missing -> userRepository.findAllById(new ArrayList<String>(missing)).stream()
+                .collect(Collectors.toMap(User::getId, UserSummaryDTO::from)));
+    }
+
+    public void invalidate(String userId) {
+        profiles.invalidate(userId);
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = profiles.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", profiles.estimatedSize());
+        result.put("hitRate", stats.hitRate());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("loads", stats.loadCount());
+        result.put("evictions", stats.evictionCount());
+        result.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+}
@@ -15,6 +15,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.List;
@@ -31,6 +32,12 @@ public class UserService {
     @Autowired
     private FollowRepository followRepository;
 
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private ProfilePropagationService profilePropagationService;
+
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     // For Google Auth
@@ -93,11 +100,19 @@ public class UserService {
         }
 
         User existingUser = userOptional.get();
+        boolean profileChanged = !Objects.equals(existingUser.getName(), updatedUser.getName())
+                || !Objects.equals(existingUser.getImageUrl(), updatedUser.getImageUrl());
         existingUser.setName(updatedUser.getName());
         existingUser.setEmail(updatedUser.getEmail());
 
         existingUser.setImageUrl(updatedUser.getImageUrl());
-        return ResponseEntity.ok(userRepository.save(existingUser));
+        User savedUser = userRepository.save(existingUser);
+        userProfileCache.invalidate(id);
+        if (profileChanged) {
+            // Copies on comments, likes and notifications are rewritten in the background
+            profilePropagationService.enqueue(savedUser);
+        }
+        return ResponseEntity.ok(savedUser);
     }
 
     public List<User> getAllUsers() {
@@ -0,0 +1,132 @@
+package com.paf_project.learning_platform.storage;
+
+import com.google.cloud.WriteChannel;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Bucket;
+import com.google.cloud.storage.Storage;
+import com.google.firebase.cloud.StorageClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Component
+@ConditionalOnProperty(name = "media.storage.type", havingValue = "firebase", matchIfMissing = true)
+public class FirebaseMediaStorage implements MediaStorage {
+
+    // Resumable upload chunk sent per request; must be a multiple of 256 KiB
+    private static final int UPLOAD_CHUNK_SIZE = 1024 * 1024;
+
+    // Upper bound on objects per batch delete request
+    private static final int DELETE_BATCH_SIZE = 100;
+
+    @Value("${media.storage.firebase.bucket:paf-it-c136a.firebasestorage.app}")
+    private String bucketName;
+
+    private volatile Bucket bucket;
+
+    // Resolved once on first use; Firebase may not be initialised yet when the bean is created
+    private Bucket bucket() {
+        Bucket current = bucket;
+        if (current == null) {
+            synchronized (this) {
+                if (bucket == null) {
+                    bucket = StorageClient.getInstance().bucket(bucketName);
+                }
+                current = bucket;
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public String upload(String path, String contentType, InputStream content) throws IOException {
+        BlobInfo blobInfo = BlobInfo.newBuilder(BlobId.of(bucketName, path))
+                .setContentType(contentType)
+                .build();
+
+        // GCS resumable upload: the writer holds at most one chunk, whatever the file size
+        try (WriteChannel writer = bucket().getStorage().writer(blobInfo);
+             ReadableByteChannel reader = Channels.newChannel(content)) {
+            writer.setChunkSize(UPLOAD_CHUNK_SIZE);
+            ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+            while (reader.read(buffer) >= 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    writer.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
+
+        return urlFor(path);
+    }
+
+    @Override
+    public String urlFor(String path) {
+        // Download URL that works directly in browsers
+        return String.format("https://firebasestorage.googleapis.com/v0/b/%s/o/%s?alt=media",
+                bucketName,
+                path.replace("/", "%2F"));
+    }
+
+    @Override
+    public InputStream open(String path) throws IOException {
+        Blob blob = bucket().get(path);
+        if (blob == null) {
+            throw new FileNotFoundException(path);
+        }
+        return Channels.newInputStream(blob.reader());
+    }
+
+    @Override
+    public void delete(String path) {
+        Blob blob = bucket().get(path);
+        if (blob != null) {
+            blob.delete();
+        }
+    }
+
+    @Override
+    public void deleteAll(Collection<String> paths) {
+        Storage storage = bucket().getStorage();
+        List<BlobId> batch = new ArrayList<>(DELETE_BATCH_SIZE);
+        for (String path : paths) {
+            batch.add(BlobId.of(bucketName, path));
+            if (batch.size() == DELETE_BATCH_SIZE) {
+                storage.delete(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            storage.delete(batch);
+        }
+    }
+
+    @Override
+    public void forEachObject(String prefix, Consumer<StoredObject> action) {
+        for (Blob blob : bucket().list(Storage.BlobListOption.prefix(prefix)).iterateAll()) {
+            Long created = blob.getCreateTime();
+            action.accept(new StoredObject(blob.getName(),
+                    created == null ? Instant.now() : Instant.ofEpochMilli(created)));
+        }
+    }
+
+    @Override
+    public String pathFromUrl(String url) {
+        return url.substring(url.indexOf("/o/") + 3, url.indexOf("?alt=media")).replace("%2F", "/");
+    }
+}
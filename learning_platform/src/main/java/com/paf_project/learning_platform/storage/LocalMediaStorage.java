@@ -0,0 +1,105 @@
+package com.paf_project.learning_platform.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Filesystem-backed storage for local development and tests; files are served under /media/**
+@Component
+@ConditionalOnProperty(name = "media.storage.type", havingValue = "local")
+public class LocalMediaStorage implements MediaStorage, WebMvcConfigurer {
+
+    private static final String URL_PATH = "/media/";
+
+    @Value("${media.storage.local.root-dir:./media-uploads}")
+    private Path rootDir;
+
+    @Value("${media.storage.local.base-url:http://localhost:8070}")
+    private String baseUrl;
+
+    @Override
+    public String upload(String path, String contentType, InputStream content) throws IOException {
+        Path target = resolve(path);
+        Files.createDirectories(target.getParent());
+        Files.copy(content, target, StandardCopyOption.REPLACE_EXISTING);
+        return urlFor(path);
+    }
+
+    @Override
+    public String urlFor(String path) {
+        return baseUrl + URL_PATH + path;
+    }
+
+    @Override
+    public InputStream open(String path) throws IOException {
+        return Files.newInputStream(resolve(path));
+    }
+
+    @Override
+    public void delete(String path) {
+        try {
+            Files.deleteIfExists(resolve(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void deleteAll(Collection<String> paths) {
+        paths.forEach(this::delete);
+    }
+
+    @Override
+    public void forEachObject(String prefix, Consumer<StoredObject> action) {
+        Path root = rootDir.toAbsolutePath().normalize();
+        Path start = resolve(prefix);
+        if (!Files.isDirectory(start)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(start)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                try {
+                    action.accept(new StoredObject(
+                            root.relativize(file).toString().replace('\\', '/'),
+                            Files.getLastModifiedTime(file).toInstant()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String pathFromUrl(String url) {
+        return url.substring(url.indexOf(URL_PATH) + URL_PATH.length());
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler(URL_PATH + "**")
+                .addResourceLocations("file:" + rootDir.toAbsolutePath().normalize() + "/");
+    }
+
+    private Path resolve(String path) {
+        Path root = rootDir.toAbsolutePath().normalize();
+        Path target = root.resolve(path).normalize();
+        if (!target.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid media path");
+        }
+        return target;
+    }
+}
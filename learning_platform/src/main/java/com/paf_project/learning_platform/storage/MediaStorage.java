@@ -0,0 +1,32 @@
+package com.paf_project.learning_platform.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+// Blob store behind post media. Paths look like "images/<name>" and are backend-independent.
+public interface MediaStorage {
+    // Buffer used when copying streams into a backend; bounds heap use per upload
+    int COPY_BUFFER_SIZE = 64 * 1024;
+
+    // Streams the content to the given path and returns a URL browsers can load directly.
+    // Implementations must not buffer the whole stream in memory.
+    String upload(String path, String contentType, InputStream content) throws IOException;
+
+    // Opens a stored object for streaming reads
+    InputStream open(String path) throws IOException;
+
+    void delete(String path);
+
+    // Deletes many objects in as few backend calls as possible; missing paths are ignored
+    void deleteAll(Collection<String> paths);
+
+    // Visits every stored object under the prefix, for reconciliation against the database
+    void forEachObject(String prefix, Consumer<StoredObject> action);
+
+    String urlFor(String path);
+
+    // Inverse of urlFor
+    String pathFromUrl(String url);
+}
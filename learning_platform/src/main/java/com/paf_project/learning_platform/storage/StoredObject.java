@@ -0,0 +1,6 @@
+package com.paf_project.learning_platform.storage;
+
+import java.time.Instant;
+
+public record StoredObject(String path, Instant createdAt) {
+}
@@ -0,0 +1,108 @@
+package com.paf_project.learning_platform.util;
+
+import org.bson.types.ObjectId;
+
+import java.nio.ByteBuffer;
+
+// Open-addressing hash set of ObjectIds stored as raw 12 bytes (a long plus an int) in parallel
+// arrays: about 13 bytes per id instead of ~100 for a HashSet<String>. Not thread-safe.
+public final class ObjectIdSet {
+
+    private static final float MAX_LOAD = 0.6f;
+
+    private long[] high;
+    private int[] low;
+    private boolean[] used;
+    private int size;
+
+    public ObjectIdSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / MAX_LOAD)) * 2 - 1);
+        high = new long[capacity];
+        low = new int[capacity];
+        used = new boolean[capacity];
+    }
+
+    public boolean add(ObjectId id) {
+        ByteBuffer bytes = ByteBuffer.wrap(id.toByteArray());
+        long h = bytes.getLong();
+        int l = bytes.getInt();
+        int slot = find(h, l);
+        if (used[slot]) {
+            return false;
+        }
+        high[slot] = h;
+        low[slot] = l;
+        used[slot] = true;
+        if (++size > used.length * MAX_LOAD) {
+            resize();
+        }
+        return true;
+    }
+
+    public boolean contains(ObjectId id) {
+        ByteBuffer bytes = ByteBuffer.wrap(id.toByteArray());
+        return used[find(bytes.getLong(), bytes.getInt())];
+    }
+
+    public boolean remove(ObjectId id) {
+        ByteBuffer bytes = ByteBuffer.wrap(id.toByteArray());
+        int slot = find(bytes.getLong(), bytes.getInt());
+        if (!used[slot]) {
+            return false;
+        }
+        used[slot] = false;
+        size--;
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        int mask = used.length - 1;
+        int next = (slot + 1) & mask;
+        while (used[next]) {
+            int home = hash(high[next], low[next]) & mask;
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                high[slot] = high[next];
+                low[slot] = low[next];
+                used[slot] = true;
+                used[next] = false;
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Slot holding the id, or the empty slot where it would go
+    private int find(long h, int l) {
+        int mask = used.length - 1;
+        int slot = hash(h, l) & mask;
+        while (used[slot] && (high[slot] != h || low[slot] != l)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize() {
+        long[] oldHigh = high;
+        int[] oldLow = low;
+        boolean[] oldUsed = used;
+        high = new long[oldUsed.length * 2];
+        low = new int[oldUsed.length * 2];
+        used = new boolean[oldUsed.length * 2];
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int slot = find(oldHigh[i], oldLow[i]);
+                high[slot] = oldHigh[i];
+                low[slot] = oldLow[i];
+                used[slot] = true;
+            }
+        }
+    }
+
+    // The low bytes of an ObjectId are a counter, the high ones mostly timestamp and machine; mix both
+    private static int hash(long h, int l) {
+        long mixed = (h ^ (h >>> 32)) * 0x9E3779B97F4A7C15L + l;
+        return (int) (mixed ^ (mixed >>> 29));
+    }
+}
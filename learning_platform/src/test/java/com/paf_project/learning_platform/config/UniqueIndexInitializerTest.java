@@ -0,0 +1,142 @@
+package com.paf_project.learning_platform.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.result.DeleteResult;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import com.paf_project.learning_platform.model.CommentLike;
+import com.paf_project.learning_platform.model.Like;
+
+import java.util.Iterator;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class UniqueIndexInitializerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations likeIndexes;
+
+    @Mock
+    private IndexOperations commentLikeIndexes;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    @InjectMocks
+    private UniqueIndexInitializer uniqueIndexInitializer;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.indexOps(Like.class)).thenReturn(likeIndexes);
+        when(mongoTemplate.indexOps(CommentLike.class)).thenReturn(commentLikeIndexes);
+    }
+
+    @Test
+    void removesAllButTheOldestDuplicateBeforeCreatingTheIndex() {
+        ObjectId oldest = new ObjectId();
+        ObjectId copy = new ObjectId();
+        when(likeIndexes.getIndexInfo()).thenReturn(List.of());
+        givenUniqueIndex(commentLikeIndexes, "comment_user");
+        when(mongoTemplate.getCollectionName(Like.class)).thenReturn("likes");
+        when(mongoTemplate.getCollection("likes")).thenReturn(collection);
+        givenDuplicateGroups(new Document("keep", oldest).append("ids", List.of(copy, oldest)));
+        when(collection.deleteMany(any(Bson.class))).thenReturn(DeleteResult.acknowledged(1));
+
+        uniqueIndexInitializer.createUniqueIndexes();
+
+        ArgumentCaptor<Bson> deleted = ArgumentCaptor.forClass(Bson.class);
+        verify(collection, atLeastOnce()).deleteMany(deleted.capture());
+        assertEquals(Filters.in("_id", List.of(copy)).toBsonDocument(), deleted.getValue().toBsonDocument());
+
+        ArgumentCaptor<IndexDefinition> created = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(likeIndexes).ensureIndex(created.capture());
+        Document options = created.getValue().getIndexOptions();
+        assertTrue(options.getBoolean("unique"));
+        assertEquals("post_user", options.getString("name"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void dedupesCommentLikesOnTheirOwnKeys() {
+        givenUniqueIndex(likeIndexes, "post_user");
+        when(commentLikeIndexes.getIndexInfo()).thenReturn(List.of());
+        when(mongoTemplate.getCollectionName(CommentLike.class)).thenReturn("comment_likes");
+        when(mongoTemplate.getCollection("comment_likes")).thenReturn(collection);
+        ObjectId oldest = new ObjectId();
+        givenDuplicateGroups(new Document("keep", oldest).append("ids", List.of(oldest, new ObjectId())));
+        when(collection.deleteMany(any(Bson.class))).thenReturn(DeleteResult.acknowledged(1));
+
+        uniqueIndexInitializer.createUniqueIndexes();
+
+        ArgumentCaptor<List<Document>> pipeline = ArgumentCaptor.forClass(List.class);
+        verify(collection).aggregate(pipeline.capture());
+        Document groupKey = pipeline.getValue().get(0).get("$group", Document.class).get("_id", Document.class);
+        assertEquals(new Document("commentId", "$commentId").append("userId", "$userId"), groupKey);
+
+        ArgumentCaptor<IndexDefinition> created = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(commentLikeIndexes).ensureIndex(created.capture());
+        assertEquals("comment_user", created.getValue().getIndexOptions().getString("name"));
+        assertEquals(new Document("commentId", 1).append("userId", 1), created.getValue().getIndexKeys());
+    }
+
+    @Test
+    void skipsTheScanOnceTheUniqueIndexExists() {
+        givenUniqueIndex(likeIndexes, "post_user");
+        givenUniqueIndex(commentLikeIndexes, "comment_user");
+
+        uniqueIndexInitializer.createUniqueIndexes();
+
+        verify(mongoTemplate, never()).getCollection(any());
+        verify(likeIndexes, never()).ensureIndex(any(Index.class));
+        verify(commentLikeIndexes, never()).ensureIndex(any(Index.class));
+    }
+
+    private void givenUniqueIndex(IndexOperations indexes, String name) {
+        IndexInfo existing = mock(IndexInfo.class);
+        when(existing.getName()).thenReturn(name);
+        when(existing.isUnique()).thenReturn(true);
+        when(indexes.getIndexInfo()).thenReturn(List.of(existing));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenDuplicateGroups(Document... groups) {
+        AggregateIterable<Document> result = mock(AggregateIterable.class);
+        when(collection.aggregate(anyList())).thenReturn(result);
+        when(result.allowDiskUse(true)).thenReturn(result);
+        Iterator<Document> rows = List.of(groups).iterator();
+        MongoCursor<Document> cursor = mock(MongoCursor.class);
+        when(result.iterator()).thenReturn(cursor);
+        when(cursor.hasNext()).thenAnswer(call -> rows.hasNext());
+        when(cursor.next()).thenAnswer(call -> rows.next());
+    }
+}
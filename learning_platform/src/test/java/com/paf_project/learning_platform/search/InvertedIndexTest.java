@@ -0,0 +1,113 @@
+package com.paf_project.learning_platform.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+class InvertedIndexTest {
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    @Test
+    void moreOccurrencesRankHigher() {
+        index.put(post("once", "java tips"));
+        index.put(post("twice", "java java tips"));
+
+        assertEquals(List.of("twice", "once"), postIds(index.search(List.of("java"), 0, 10)));
+    }
+
+    @Test
+    void rarerTermsWeighMore() {
+        index.put(post("common", "spring boot"));
+        index.put(post("rare", "mongodb boot"));
+        index.put(post("other", "spring data"));
+
+        // "spring" is in two posts, "mongodb" in one, so the mongodb match scores higher
+        assertEquals("rare", postIds(index.search(List.of("spring", "mongodb"), 0, 10)).get(0));
+    }
+
+    @Test
+    void pagesThroughHitsAndReportsTheTotal() {
+        for (int i = 0; i < 5; i++) {
+            index.put(post("post-" + i, "java ".repeat(i + 1)));
+        }
+
+        InvertedIndex.Result page = index.search(List.of("java"), 2, 2);
+
+        assertEquals(5, page.total());
+        assertEquals(List.of("post-2", "post-1"), postIds(page));
+        assertTrue(index.search(List.of("java"), 10, 2).hits().isEmpty());
+    }
+
+    @Test
+    void reindexingReplacesTheOldTerms() {
+        index.put(post("post", "kotlin"));
+        index.put(post("post", "java"));
+
+        assertEquals(0, index.search(List.of("kotlin"), 0, 10).total());
+        assertEquals(List.of("post"), postIds(index.search(List.of("java"), 0, 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void compactionDropsTombstonesAndKeepsResults() {
+        index.put(post("a", "java spring"));
+        index.put(post("b", "java"));
+        index.put(post("c", "spring"));
+        index.remove("a");
+        index.put(post("b", "java java"));
+        List<String> before = postIds(index.search(List.of("java", "spring"), 0, 10));
+
+        assertTrue(index.deadRatio() > 0);
+        index.compact();
+
+        assertEquals(0.0, index.deadRatio());
+        assertEquals(before, postIds(index.search(List.of("java", "spring"), 0, 10)));
+        index.put(post("d", "java"));
+        assertEquals(3, index.search(List.of("java", "spring"), 0, 10).total());
+    }
+
+    @Test
+    void rebuildDoesNotResurrectPostsRemovedWhileItRuns() {
+        index.beginRebuild();
+        index.remove("deleted");
+        index.putAllIfAbsent(List.of(post("deleted", "stale text"), post("kept", "stale text")));
+        index.endRebuild();
+
+        assertEquals(List.of("kept"), postIds(index.search(List.of("stale"), 0, 10)));
+    }
+
+    @Test
+    void rebuildDoesNotRestoreTextALiveEditCleared() {
+        index.beginRebuild();
+        index.put(post("edited", "")); // description emptied: nothing left to index
+        index.putAllIfAbsent(List.of(post("edited", "old description")));
+        index.endRebuild();
+
+        assertEquals(0, index.search(List.of("description"), 0, 10).total());
+    }
+
+    @Test
+    void rebuildNeverOverwritesANewerLiveVersion() {
+        index.beginRebuild();
+        index.put(post("post", "new text"));
+        index.putAllIfAbsent(List.of(post("post", "old text")));
+        index.endRebuild();
+
+        assertEquals(0, index.search(List.of("old"), 0, 10).total());
+        assertEquals(1, index.search(List.of("new"), 0, 10).total());
+    }
+
+    private static InvertedIndex.IndexedPost post(String postId, String text) {
+        Map<String, Integer> frequencies = Tokenizer.termFrequencies(text);
+        return new InvertedIndex.IndexedPost(postId, frequencies);
+    }
+
+    private static List<String> postIds(InvertedIndex.Result result) {
+        return result.hits().stream().map(InvertedIndex.Hit::postId).toList();
+    }
+}
@@ -0,0 +1,27 @@
+package com.paf_project.learning_platform.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+class TokenizerTest {
+
+    @Test
+    void documentsCountLowercasedTermsAndExpandHashtags() {
+        assertEquals(Map.of("learning", 2, "#java", 1, "java", 1),
+                Tokenizer.termFrequencies("Learning #Java, learning!"));
+    }
+
+    @Test
+    void queriesKeepHashtagsExactAndDropDuplicates() {
+        assertEquals(List.of("#java", "spring"), Tokenizer.queryTerms("#java spring Spring"));
+    }
+
+    @Test
+    void tooShortAndTooLongWordsAreIgnored() {
+        assertEquals(List.of("ok"), Tokenizer.queryTerms("a ok " + "x".repeat(41)));
+    }
+}
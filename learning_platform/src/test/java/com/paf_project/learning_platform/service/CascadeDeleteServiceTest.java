@@ -0,0 +1,94 @@
+package com.paf_project.learning_platform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.paf_project.learning_platform.model.CascadeDeleteTask;
+
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class CascadeDeleteServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private LikedPostsCache likedPostsCache;
+
+    @InjectMocks
+    private CascadeDeleteService cascadeDeleteService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cascadeDeleteService, "batchSize", 500);
+        ReflectionTestUtils.setField(cascadeDeleteService, "leaseMinutes", 10L);
+    }
+
+    @Test
+    void aFailingTaskDoesNotStopThePass() {
+        CascadeDeleteTask broken = task("broken", CascadeDeleteTask.TargetType.POST, "post-1");
+        CascadeDeleteTask next = task("next", CascadeDeleteTask.TargetType.COMMENT, "comment-1");
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(CascadeDeleteTask.class))).thenReturn(broken, next, null);
+        when(mongoTemplate.getCollectionName(any(Class.class)))
+                .thenAnswer(call -> ((Class<?>) call.getArgument(0)).getSimpleName());
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), anyString())).thenAnswer(call -> {
+            if (call.getArgument(2).equals("Comment")) {
+                throw new IllegalStateException("comments unavailable");
+            }
+            return List.of();
+        });
+
+        cascadeDeleteService.processQueue();
+
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq(CascadeDeleteTask.class));
+        assertEquals(new Document("_id", "next"), removed.getValue().getQueryObject());
+    }
+
+    @Test
+    void removedLikesLeaveTheLikersCachedSets() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(CascadeDeleteTask.class))).thenReturn(task("t", CascadeDeleteTask.TargetType.POST, "post-1"), null);
+        when(mongoTemplate.getCollectionName(any(Class.class)))
+                .thenAnswer(call -> ((Class<?>) call.getArgument(0)).getSimpleName());
+        List<Document> likes = List.of(new Document("_id", "l1").append("userId", "alice"),
+                new Document("_id", "l2").append("userId", "bob"));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), anyString())).thenReturn(List.of());
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("Like"))).thenReturn(likes, List.of());
+
+        cascadeDeleteService.processQueue();
+
+        InOrder order = inOrder(mongoTemplate, likedPostsCache);
+        order.verify(mongoTemplate).remove(any(Query.class), eq("Like"));
+        order.verify(likedPostsCache).onUnliked("alice", "post-1");
+        verify(likedPostsCache).onUnliked("bob", "post-1");
+    }
+
+    private CascadeDeleteTask task(String id, CascadeDeleteTask.TargetType type, String targetId) {
+        CascadeDeleteTask task = new CascadeDeleteTask(type, targetId);
+        task.setId(id);
+        return task;
+    }
+}
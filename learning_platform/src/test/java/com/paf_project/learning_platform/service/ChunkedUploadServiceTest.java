@@ -0,0 +1,124 @@
+package com.paf_project.learning_platform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.mongodb.client.result.UpdateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import com.paf_project.learning_platform.model.UploadSession;
+import com.paf_project.learning_platform.repository.UploadSessionRepository;
+import com.paf_project.learning_platform.repository.UserRepository;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+class ChunkedUploadServiceTest {
+
+    @Mock
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MediaBlobService mediaBlobService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private ChunkedUploadService chunkedUploadService;
+
+    @TempDir
+    private Path stagingDir;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(chunkedUploadService, "stagingDir", stagingDir);
+        ReflectionTestUtils.setField(chunkedUploadService, "maxVideoSize", DataSize.ofMegabytes(30));
+        ReflectionTestUtils.setField(chunkedUploadService, "chunkLeaseMinutes", 10L);
+    }
+
+    @Test
+    void startUploadRejectsSizesAboveTheVideoLimit() {
+        long tooLarge = DataSize.ofMegabytes(31).toBytes();
+        assertThrows(IllegalArgumentException.class,
+                () -> chunkedUploadService.startUpload("user-1", "clip.mp4", "video/mp4", tooLarge));
+        verifyNoInteractions(uploadSessionRepository);
+    }
+
+    @Test
+    void startUploadRejectsNonVideoContent() {
+        assertThrows(IllegalArgumentException.class,
+                () -> chunkedUploadService.startUpload("user-1", "notes.zip", "application/zip", 1024));
+        verifyNoInteractions(uploadSessionRepository);
+    }
+
+    @Test
+    void appendChunkRejectsAnotherUsersUpload() {
+        when(uploadSessionRepository.findById("upload-1")).thenReturn(Optional.of(session("owner", 0, 5)));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> chunkedUploadService.appendChunk("upload-1", "intruder", 0, bytes("hello")));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void appendChunkLeavesTheFileAloneWhenTheOffsetIsAlreadyClaimed() throws Exception {
+        when(uploadSessionRepository.findById("upload-1")).thenReturn(Optional.of(session("owner", 0, 5)));
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(UploadSession.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        Path staged = Files.createFile(stagingDir.resolve("upload-1.part"));
+
+        assertThrows(IllegalStateException.class,
+                () -> chunkedUploadService.appendChunk("upload-1", "owner", 0, bytes("hello")));
+        assertEquals(0, Files.size(staged));
+    }
+
+    @Test
+    void appendChunkWritesAtTheClaimedOffsetAndAdvances() throws Exception {
+        when(uploadSessionRepository.findById("upload-1")).thenReturn(Optional.of(session("owner", 0, 5)));
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(UploadSession.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        Path staged = Files.createFile(stagingDir.resolve("upload-1.part"));
+
+        UploadSession session = chunkedUploadService.appendChunk("upload-1", "owner", 0, bytes("hello"));
+
+        assertEquals(5, session.getReceivedBytes());
+        assertEquals("hello", Files.readString(staged));
+    }
+
+    private static UploadSession session(String userId, long receivedBytes, long totalSize) {
+        UploadSession session = new UploadSession();
+        session.setId("upload-1");
+        session.setUserId(userId);
+        session.setContentType("video/mp4");
+        session.setReceivedBytes(receivedBytes);
+        session.setTotalSize(totalSize);
+        return session;
+    }
+
+    private static ByteArrayInputStream bytes(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
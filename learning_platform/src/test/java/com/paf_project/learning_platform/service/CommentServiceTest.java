@@ -0,0 +1,193 @@
+package com.paf_project.learning_platform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.ServerCursor;
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.paf_project.learning_platform.dto.CommentThreadDTO;
+import com.paf_project.learning_platform.dto.CursorPageDTO;
+import com.paf_project.learning_platform.model.Comment;
+import com.paf_project.learning_platform.model.CommentLike;
+import com.paf_project.learning_platform.model.CommentReply;
+import com.paf_project.learning_platform.repository.CommentLikeRepo;
+import com.paf_project.learning_platform.repository.CommentRepo;
+import com.paf_project.learning_platform.util.PageCursor;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class CommentServiceTest {
+
+    private static final String POST_ID = "post-1";
+
+    @Mock
+    private CommentRepo commentRepo;
+
+    @Mock
+    private CommentLikeRepo commentLikeRepo;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoCollection<Document> replies;
+
+    @Mock
+    private AggregateIterable<Document> replyRows;
+
+    @InjectMocks
+    private CommentService commentService;
+
+    private final Comment first = comment();
+    private final Comment second = comment();
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.getCollectionName(CommentReply.class)).thenReturn("comment_replies");
+        when(mongoTemplate.getCollection("comment_replies")).thenReturn(replies);
+    }
+
+    @Test
+    void aggregatedCountsAndPreviewsAreMappedOntoTheirComments() {
+        when(commentRepo.findLatestByPostId(eq(POST_ID), any(Pageable.class))).thenReturn(List.of(first, second));
+        givenReplyRows(new Document("_id", first.getId()).append("count", 3)
+                .append("replies", List.of(reply(first.getId(), "oldest"), reply(first.getId(), "next"))));
+        givenLikeRows(new Document("_id", second.getId()).append("count", 7L));
+        when(commentLikeRepo.findByUserIdAndCommentIdIn(eq("viewer"), anyList())).thenReturn(List.of(like(second.getId())));
+        when(mongoTemplate.getConverter()).thenReturn(
+                new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+
+        CursorPageDTO<CommentThreadDTO> page = commentService.getCommentThreads(POST_ID, "viewer", null, 10, 2);
+
+        CommentThreadDTO withReplies = page.getItems().get(0);
+        assertEquals(3, withReplies.getReplyCount());
+        assertEquals(0, withReplies.getLikeCount());
+        assertFalse(withReplies.isHasLiked());
+        assertEquals(List.of("oldest", "next"), withReplies.getReplies().stream().map(CommentReply::getContent).toList());
+
+        CommentThreadDTO withLikes = page.getItems().get(1);
+        assertEquals(0, withLikes.getReplyCount());
+        assertEquals(7, withLikes.getLikeCount());
+        assertTrue(withLikes.isHasLiked());
+        assertTrue(withLikes.getReplies().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void previewsAreLeftOutOfTheGroupWhenNoneAreAsked() {
+        when(commentRepo.findLatestByPostId(eq(POST_ID), any(Pageable.class))).thenReturn(List.of(first, second));
+        givenReplyRows();
+        givenLikeRows();
+
+        CursorPageDTO<CommentThreadDTO> page = commentService.getCommentThreads(POST_ID, null, null, 1, 0);
+
+        ArgumentCaptor<List<Document>> pipeline = ArgumentCaptor.forClass(List.class);
+        verify(replies).aggregate(pipeline.capture());
+        Document group = pipeline.getValue().get(2).get("$group", Document.class);
+        assertFalse(group.containsKey("replies"));
+        assertEquals(1, page.getItems().size());
+        assertEquals(first.getId(), page.getItems().get(0).getComment().getId());
+        assertEquals(first.getId(), PageCursor.decode(page.getNextCursor()).getId());
+    }
+
+    private void givenReplyRows(Document... rows) {
+        when(replies.aggregate(anyList())).thenReturn(replyRows);
+        when(replyRows.iterator()).thenReturn(new ListCursor(List.of(rows)));
+    }
+
+    private void givenLikeRows(Document... rows) {
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(CommentLike.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(rows), new Document()));
+    }
+
+    private static Comment comment() {
+        Comment comment = new Comment();
+        comment.setId(new ObjectId().toHexString());
+        comment.setPostId(POST_ID);
+        comment.setCreatedAt(new Date());
+        return comment;
+    }
+
+    private static Document reply(String commentId, String content) {
+        return new Document("_id", new ObjectId()).append("commentId", commentId).append("content", content);
+    }
+
+    private static CommentLike like(String commentId) {
+        CommentLike like = new CommentLike();
+        like.setCommentId(commentId);
+        return like;
+    }
+
+    private static final class ListCursor implements MongoCursor<Document> {
+        private final Iterator<Document> rows;
+
+        ListCursor(List<Document> rows) {
+            this.rows = rows.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return rows.hasNext();
+        }
+
+        @Override
+        public Document next() {
+            return rows.next();
+        }
+
+        @Override
+        public int available() {
+            return 0;
+        }
+
+        @Override
+        public Document tryNext() {
+            return rows.hasNext() ? rows.next() : null;
+        }
+
+        @Override
+        public ServerCursor getServerCursor() {
+            return null;
+        }
+
+        @Override
+        public ServerAddress getServerAddress() {
+            return null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.paf_project.learning_platform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+class ImageDerivativeServiceTest {
+
+    private final ImageDerivativeService imageDerivativeService = new ImageDerivativeService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(imageDerivativeService, "maxPixels", 1_000_000L);
+    }
+
+    @Test
+    void decodesImagesWithinThePixelLimit() throws IOException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(40, 30, BufferedImage.TYPE_INT_RGB), "png", png);
+
+        BufferedImage decoded = imageDerivativeService.decode(new ByteArrayInputStream(png.toByteArray()));
+
+        assertNotNull(decoded);
+        assertEquals(40, decoded.getWidth());
+        assertEquals(30, decoded.getHeight());
+    }
+
+    @Test
+    void skipsImagesWhoseHeaderClaimsTooManyPixels() throws IOException {
+        // A few dozen bytes that would decode to 100000 x 100000 pixels
+        byte[] bomb = pngHeader(100_000, 100_000);
+
+        assertNull(imageDerivativeService.decode(new ByteArrayInputStream(bomb)));
+    }
+
+    @Test
+    void returnsNullForUnknownFormats() throws IOException {
+        assertNull(imageDerivativeService.decode(new ByteArrayInputStream("not an image".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static byte[] pngHeader(int width, int height) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'});
+
+        ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+        DataOutputStream ihdr = new DataOutputStream(chunk);
+        ihdr.writeBytes("IHDR");
+        ihdr.writeInt(width);
+        ihdr.writeInt(height);
+        ihdr.write(new byte[] {8, 2, 0, 0, 0}); // 8-bit RGB, no interlace
+        CRC32 crc = new CRC32();
+        crc.update(chunk.toByteArray());
+
+        out.writeInt(13);
+        out.write(chunk.toByteArray());
+        out.writeInt((int) crc.getValue());
+        return bytes.toByteArray();
+    }
+}
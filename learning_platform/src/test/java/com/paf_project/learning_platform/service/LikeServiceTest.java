@@ -0,0 +1,178 @@
+package com.paf_project.learning_platform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.paf_project.learning_platform.dto.CursorPageDTO;
+import com.paf_project.learning_platform.dto.LikerDTO;
+import com.paf_project.learning_platform.dto.LikersSummaryDTO;
+import com.paf_project.learning_platform.dto.UserSummaryDTO;
+import com.paf_project.learning_platform.model.Like;
+import com.paf_project.learning_platform.model.MediaModel;
+import com.paf_project.learning_platform.repository.LikeRepo;
+import com.paf_project.learning_platform.repository.MediaRepo;
+import com.paf_project.learning_platform.util.PageCursor;
+
+import java.util.List;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+class LikeServiceTest {
+
+    private static final String POST_ID = "post-1";
+    private static final String OWNER_ID = "owner";
+    private static final String USER_ID = "liker";
+
+    @Mock
+    private LikeRepo likeRepo;
+
+    @Mock
+    private UserProfileCache userProfileCache;
+
+    @Mock
+    private MediaRepo mediaRepo;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private PostCounterService postCounterService;
+
+    @Mock
+    private TrendingService trendingService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private LikeWriteBuffer likeWriteBuffer;
+
+    @Mock
+    private LikedPostsCache likedPostsCache;
+
+    @InjectMocks
+    private LikeService likeService;
+
+    @Test
+    void unlikingRemovesAtomicallyAndDecrementsOnce() {
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(Like.class))).thenReturn(like());
+
+        assertNull(likeService.toggleLike(POST_ID, USER_ID));
+
+        verify(postCounterService).decrement(POST_ID, PostCounterService.Counter.LIKES);
+        verify(likedPostsCache).onUnliked(USER_ID, POST_ID);
+        verify(likeRepo, never()).insert(any(Like.class));
+    }
+
+    @Test
+    void likingCountsAndNotifiesTheOwner() {
+        givenNothingToRemove();
+        Like saved = like();
+        when(likeRepo.insert(any(Like.class))).thenReturn(saved);
+
+        assertSame(saved, likeService.toggleLike(POST_ID, USER_ID));
+
+        verify(postCounterService).increment(POST_ID, PostCounterService.Counter.LIKES);
+        verify(trendingService).record(POST_ID, TrendingService.Event.LIKE);
+        verify(notificationService).createNotification(eq(OWNER_ID), eq(USER_ID), eq("LIKE"), anyString(), eq(POST_ID));
+    }
+
+    @Test
+    void losingAConcurrentLikeKeepsTheWinnerAndCountsNothing() {
+        givenNothingToRemove();
+        Like winner = like();
+        when(likeRepo.insert(any(Like.class))).thenThrow(new DuplicateKeyException("post_user"));
+        when(likeRepo.findByPostIdAndUserId(POST_ID, USER_ID)).thenReturn(Optional.of(winner));
+
+        assertSame(winner, likeService.toggleLike(POST_ID, USER_ID));
+
+        verifyNoInteractions(postCounterService, trendingService, notificationService);
+        verify(likedPostsCache).onLiked(USER_ID, POST_ID);
+    }
+
+    @Test
+    void ownersLikingTheirOwnPostAreNotNotified() {
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(Like.class))).thenReturn(null);
+        when(userProfileCache.get(OWNER_ID)).thenReturn(Optional.of(user(OWNER_ID, "Owner")));
+        when(mediaRepo.findById(POST_ID)).thenReturn(Optional.of(post()));
+        when(likeRepo.insert(any(Like.class))).thenReturn(like());
+
+        likeService.toggleLike(POST_ID, OWNER_ID);
+
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void likersSummaryTotalComesFromTheCounterAndTheBuffer() {
+        when(likeRepo.findLatestLikers(eq(POST_ID), any(Pageable.class))).thenReturn(List.of(like()));
+        MediaModel counted = post();
+        counted.setLikeCount(41);
+        when(mongoTemplate.findOne(any(Query.class), eq(MediaModel.class))).thenReturn(counted);
+        when(likeWriteBuffer.isEnabled()).thenReturn(true);
+        when(likeWriteBuffer.pendingDelta(POST_ID)).thenReturn(1L);
+
+        LikersSummaryDTO summary = likeService.getLikersSummary(POST_ID, 3);
+
+        assertEquals(42, summary.getTotal());
+        assertEquals(USER_ID, summary.getLikers().get(0).getUserId());
+        verify(likeRepo, never()).countByPostId(anyString());
+    }
+
+    @Test
+    void likersArePagedWithACursorFromTheLastRow() {
+        Like first = like();
+        first.setId(new ObjectId().toHexString());
+        Like second = like();
+        second.setId(new ObjectId().toHexString());
+        when(likeRepo.findLatestLikers(eq(POST_ID), any(Pageable.class))).thenReturn(List.of(first, second));
+
+        CursorPageDTO<LikerDTO> page = likeService.getLikers(POST_ID, null, 1);
+
+        assertEquals(1, page.getItems().size());
+        PageCursor cursor = PageCursor.decode(page.getNextCursor());
+        assertEquals(first.getId(), cursor.getObjectId().toHexString());
+    }
+
+    private void givenNothingToRemove() {
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(Like.class))).thenReturn(null);
+        when(userProfileCache.get(USER_ID)).thenReturn(Optional.of(user(USER_ID, "Liker")));
+        when(mediaRepo.findById(POST_ID)).thenReturn(Optional.of(post()));
+    }
+
+    private static MediaModel post() {
+        MediaModel post = new MediaModel();
+        post.setId(POST_ID);
+        post.setUserId(OWNER_ID);
+        return post;
+    }
+
+    private static UserSummaryDTO user(String id, String name) {
+        return new UserSummaryDTO(id, name, null, "USER");
+    }
+
+    private static Like like() {
+        Like like = new Like();
+        like.setPostId(POST_ID);
+        like.setUserId(USER_ID);
+        return like;
+    }
+}
@@ -0,0 +1,241 @@
+package com.paf_project.learning_platform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import org.bson.BsonObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.paf_project.learning_platform.dto.UserSummaryDTO;
+import com.paf_project.learning_platform.model.Like;
+import com.paf_project.learning_platform.model.MediaModel;
+import com.paf_project.learning_platform.repository.MediaRepo;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@ExtendWith(MockitoExtension.class)
+class LikeWriteBufferTest {
+
+    private static final String POST_ID = "post-1";
+    private static final String OWNER_ID = "owner";
+
+    @Mock
+    private UserProfileCache userProfileCache;
+
+    @Mock
+    private MediaRepo mediaRepo;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private PostCounterService postCounterService;
+
+    @Mock
+    private TrendingService trendingService;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private LikedPostsCache likedPostsCache;
+
+    @InjectMocks
+    private LikeWriteBuffer likeWriteBuffer;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(likeWriteBuffer, "enabled", true);
+    }
+
+    @Test
+    void flipFlopsNeverReachMongo() {
+        when(likedPostsCache.hasLiked("alice", POST_ID)).thenReturn(false);
+
+        assertTrue(likeWriteBuffer.toggle(POST_ID, "alice"));
+        assertFalse(likeWriteBuffer.toggle(POST_ID, "alice"));
+        likeWriteBuffer.flush();
+
+        verifyNoInteractions(mongoTemplate, postCounterService);
+    }
+
+    @Test
+    void lookupRunsOutsideTheMapLock() {
+        // A toggle for the same key while the first one is still reading Mongo must not deadlock or be lost
+        when(likedPostsCache.hasLiked("alice", POST_ID))
+                .thenAnswer(call -> {
+                    likeWriteBuffer.toggle(POST_ID, "alice");
+                    return false;
+                })
+                .thenReturn(false);
+
+        assertFalse(likeWriteBuffer.toggle(POST_ID, "alice"));
+        assertEquals(Optional.of(false), likeWriteBuffer.hasLiked(POST_ID, "alice"));
+        assertEquals(0, likeWriteBuffer.pendingDelta(POST_ID));
+    }
+
+    @Test
+    void stateReadDuringAFlushIsReadAgain() {
+        givenFlushContext(List.of("alice"));
+        when(bulkOperations.execute()).thenReturn(result(0, List.of(0)));
+        // The first read races another toggle that is flushed before it returns
+        when(likedPostsCache.hasLiked("alice", POST_ID))
+                .thenAnswer(call -> {
+                    likeWriteBuffer.toggle(POST_ID, "alice");
+                    likeWriteBuffer.flush();
+                    return false;
+                })
+                .thenReturn(false)
+                .thenReturn(true);
+
+        assertFalse(likeWriteBuffer.toggle(POST_ID, "alice"));
+        assertEquals(-1, likeWriteBuffer.pendingDelta(POST_ID));
+    }
+
+    @Test
+    void pendingLikesAreVisibleBeforeTheFlush() {
+        when(likedPostsCache.hasLiked("alice", POST_ID)).thenReturn(false);
+
+        likeWriteBuffer.toggle(POST_ID, "alice");
+
+        assertEquals(Optional.of(true), likeWriteBuffer.hasLiked(POST_ID, "alice"));
+        assertEquals(1, likeWriteBuffer.pendingDelta(POST_ID));
+    }
+
+    @Test
+    void bufferedLikesAreAddedToDenormalizedCounts() {
+        when(likedPostsCache.hasLiked("alice", POST_ID)).thenReturn(false);
+        when(likedPostsCache.hasLiked("alice", "root")).thenReturn(true);
+        likeWriteBuffer.toggle(POST_ID, "alice");
+        likeWriteBuffer.toggle("root", "alice");
+
+        MediaModel root = new MediaModel();
+        root.setId("root");
+        root.setLikeCount(4);
+        MediaModel share = new MediaModel();
+        share.setId(POST_ID);
+        share.setLikeCount(2);
+        share.setOriginalPost(root);
+        likeWriteBuffer.applyPendingLikes(List.of(share));
+
+        assertEquals(3, share.getLikeCount());
+        assertEquals(3, root.getLikeCount());
+    }
+
+    @Test
+    void insertedLikesAreCountedCachedAndNotified() {
+        givenNotLikedYet("alice");
+        givenFlushContext(List.of("alice"));
+        when(bulkOperations.execute()).thenReturn(result(0, List.of(0)));
+
+        likeWriteBuffer.toggle(POST_ID, "alice");
+        likeWriteBuffer.flush();
+
+        verify(likedPostsCache).onLiked("alice", POST_ID);
+        verify(postCounterService).addAll(PostCounterService.Counter.LIKES, Map.of(POST_ID, 1L));
+        verify(notificationService).createNotification(eq(OWNER_ID), eq("alice"), eq("LIKE"), anyString(), eq(POST_ID));
+        assertEquals(Optional.empty(), likeWriteBuffer.hasLiked(POST_ID, "alice"));
+    }
+
+    @Test
+    void likesFromUnknownUsersAreDroppedWithoutTouchingTheCache() {
+        givenNotLikedYet("alice");
+        givenNotLikedYet("ghost");
+        givenFlushContext(List.of("alice"));
+        when(bulkOperations.execute()).thenReturn(result(0, List.of(0)));
+
+        likeWriteBuffer.toggle(POST_ID, "alice");
+        likeWriteBuffer.toggle(POST_ID, "ghost");
+        likeWriteBuffer.flush();
+
+        verify(likedPostsCache).onLiked("alice", POST_ID);
+        verify(likedPostsCache, never()).onLiked("ghost", POST_ID);
+        verify(postCounterService).addAll(PostCounterService.Counter.LIKES, Map.of(POST_ID, 1L));
+    }
+
+    @Test
+    void upsertsThatMatchedAnExistingLikeAreNotCountedAgain() {
+        givenNotLikedYet("alice");
+        givenFlushContext(List.of("alice"));
+        when(bulkOperations.execute()).thenReturn(result(0, List.of()));
+
+        likeWriteBuffer.toggle(POST_ID, "alice");
+        likeWriteBuffer.flush();
+
+        verify(likedPostsCache).onLiked("alice", POST_ID);
+        verifyNoInteractions(postCounterService, notificationService);
+        verify(trendingService, never()).record(anyString(), any(TrendingService.Event.class), anyLong());
+    }
+
+    @Test
+    void unlikesSomeoneElseAlreadyRemovedAreNotDecremented() {
+        when(likedPostsCache.hasLiked("alice", POST_ID)).thenReturn(true);
+        givenFlushContext(List.of("alice"));
+        when(bulkOperations.execute()).thenReturn(result(0, List.of()));
+
+        likeWriteBuffer.toggle(POST_ID, "alice");
+        likeWriteBuffer.flush();
+
+        verify(likedPostsCache).onUnliked("alice", POST_ID);
+        verifyNoInteractions(postCounterService);
+    }
+
+    @Test
+    void appliedUnlikesAreDecremented() {
+        when(likedPostsCache.hasLiked("alice", POST_ID)).thenReturn(true);
+        givenFlushContext(List.of("alice"));
+        when(bulkOperations.execute()).thenReturn(result(1, List.of()));
+
+        likeWriteBuffer.toggle(POST_ID, "alice");
+        likeWriteBuffer.flush();
+
+        verify(postCounterService).addAll(PostCounterService.Counter.LIKES, Map.of(POST_ID, -1L));
+        verify(trendingService).record(POST_ID, TrendingService.Event.LIKE, -1L);
+    }
+
+    private void givenNotLikedYet(String userId) {
+        when(likedPostsCache.hasLiked(userId, POST_ID)).thenReturn(false);
+    }
+
+    private void givenFlushContext(List<String> knownUsers) {
+        MediaModel post = new MediaModel();
+        post.setId(POST_ID);
+        post.setUserId(OWNER_ID);
+        when(mediaRepo.findAllById(any())).thenReturn(List.of(post));
+        when(userProfileCache.getAll(any())).thenReturn(knownUsers.stream()
+                .collect(Collectors.toMap(id -> id, id -> new UserSummaryDTO(id, id, null, "USER"))));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Like.class)).thenReturn(bulkOperations);
+    }
+
+    private static BulkWriteResult result(int deleted, List<Integer> upsertIndexes) {
+        List<BulkWriteUpsert> upserts = upsertIndexes.stream()
+                .map(index -> new BulkWriteUpsert(index, new BsonObjectId()))
+                .toList();
+        return BulkWriteResult.acknowledged(0, 0, deleted, 0, upserts, List.of());
+    }
+}
@@ -0,0 +1,100 @@
+package com.paf_project.learning_platform.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.paf_project.learning_platform.model.Like;
+import com.paf_project.learning_platform.repository.LikeRepo;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@ExtendWith(MockitoExtension.class)
+class LikedPostsCacheTest {
+
+    private static final String ALICE = "alice";
+    private static final String BOB = "bob";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private LikeRepo likeRepo;
+
+    @InjectMocks
+    private LikedPostsCache likedPostsCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(likedPostsCache, "maxEntries", 6L);
+        ReflectionTestUtils.setField(likedPostsCache, "maxPerUser", 3);
+    }
+
+    @Test
+    void likesAreAnsweredFromMemoryAfterTheFirstLoad() {
+        String liked = new ObjectId().toHexString();
+        givenLikes(ALICE, liked);
+
+        assertTrue(likedPostsCache.hasLiked(ALICE, liked));
+        assertFalse(likedPostsCache.hasLiked(ALICE, new ObjectId().toHexString()));
+
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Like.class));
+    }
+
+    @Test
+    void growingPastTheEntryBudgetEvictsTheLeastRecentlyUsedUser() {
+        givenLikes(ALICE, new ObjectId().toHexString(), new ObjectId().toHexString()); // weighs 3
+        givenLikes(BOB, new ObjectId().toHexString()); // weighs 2
+        likedPostsCache.hasLiked(BOB, new ObjectId().toHexString());
+        likedPostsCache.hasLiked(ALICE, new ObjectId().toHexString());
+
+        // 3 + 2 + 1 more = 6 still fits; the next like pushes it to 7
+        likedPostsCache.onLiked(ALICE, new ObjectId().toHexString());
+        likedPostsCache.onLiked(ALICE, new ObjectId().toHexString());
+
+        likedPostsCache.hasLiked(BOB, new ObjectId().toHexString());
+        verify(mongoTemplate, times(2)).find(argThat(query -> isFor(query, BOB)), eq(Like.class));
+        verify(mongoTemplate, times(1)).find(argThat(query -> isFor(query, ALICE)), eq(Like.class));
+    }
+
+    @Test
+    void usersWithTooManyLikesGoToMongo() {
+        givenLikes(ALICE, Stream.generate(() -> new ObjectId().toHexString()).limit(4).toArray(String[]::new));
+        String postId = new ObjectId().toHexString();
+        when(likeRepo.existsByPostIdAndUserId(postId, ALICE)).thenReturn(true);
+
+        assertTrue(likedPostsCache.hasLiked(ALICE, postId));
+    }
+
+    private void givenLikes(String userId, String... postIds) {
+        List<Like> rows = Stream.of(postIds).map(postId -> {
+            Like like = new Like();
+            like.setPostId(postId);
+            like.setUserId(userId);
+            return like;
+        }).collect(Collectors.toList());
+        when(mongoTemplate.find(argThat(query -> isFor(query, userId)), eq(Like.class))).thenReturn(rows);
+    }
+
+    private static boolean isFor(Query query, String userId) {
+        return query != null && userId.equals(query.getQueryObject().get("userId"));
+    }
+}
@@ -0,0 +1,138 @@
+package com.paf_project.learning_platform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mongodb.client.result.DeleteResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import com.paf_project.learning_platform.model.MediaBlob;
+import com.paf_project.learning_platform.repository.MediaRepo;
+import com.paf_project.learning_platform.storage.MediaStorage;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@ExtendWith(MockitoExtension.class)
+class MediaBlobServiceTest {
+
+    private static final String URL = "https://cdn.example/images/abc.jpg";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MediaStorage mediaStorage;
+
+    @Mock
+    private MediaRepo mediaRepository;
+
+    @InjectMocks
+    private MediaBlobService mediaBlobService;
+
+    @Test
+    void storingBytesThatAreAlreadyStoredOnlyTakesAReference() throws IOException {
+        givenBlobsAfterUpdate(blob(2, true));
+
+        assertEquals(URL, mediaBlobService.store("images", "image/jpeg", "a.jpg", content()));
+        verify(mediaStorage, never()).upload(anyString(), anyString(), any(InputStream.class));
+    }
+
+    @Test
+    void firstStoreUploadsToTheReservedPath() throws IOException {
+        givenBlobsAfterUpdate(blob(1, false));
+        when(mediaStorage.upload(eq("images/abc.jpg"), eq("image/jpeg"), any(InputStream.class))).thenReturn(URL);
+
+        assertEquals(URL, mediaBlobService.store("images", "image/jpeg", "a.jpg", content()));
+        verify(mongoTemplate).updateFirst(any(Query.class), any(UpdateDefinition.class), eq(MediaBlob.class));
+    }
+
+    @Test
+    void failedUploadGivesItsReferenceBackAndCleansUpTheReservation() throws IOException {
+        givenBlobsAfterUpdate(blob(1, false), blob(0, false));
+        when(mediaStorage.upload(anyString(), anyString(), any(InputStream.class)))
+                .thenThrow(new IOException("storage down"));
+        when(mongoTemplate.remove(any(Query.class), eq(MediaBlob.class))).thenReturn(DeleteResult.acknowledged(1));
+
+        assertThrows(IOException.class, () -> mediaBlobService.store("images", "image/jpeg", "a.jpg", content()));
+        verify(mediaStorage).delete("images/abc.jpg");
+    }
+
+    @Test
+    void releaseKeepsTheObjectWhileOtherReferencesRemain() {
+        givenBlobsAfterUpdate(blob(1, true));
+
+        mediaBlobService.release(URL);
+
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(MediaBlob.class));
+        verify(mediaStorage, never()).delete(anyString());
+    }
+
+    @Test
+    void lastReleaseDeletesTheObject() {
+        givenBlobsAfterUpdate(blob(0, true));
+        when(mongoTemplate.remove(any(Query.class), eq(MediaBlob.class))).thenReturn(DeleteResult.acknowledged(1));
+
+        mediaBlobService.release(URL);
+
+        verify(mediaStorage).delete("images/abc.jpg");
+    }
+
+    @Test
+    void lastReleaseLosesToAConcurrentStoreThatTookANewReference() {
+        givenBlobsAfterUpdate(blob(0, true));
+        // The conditional remove (refCount <= 0) matched nothing: someone re-referenced the blob
+        when(mongoTemplate.remove(any(Query.class), eq(MediaBlob.class))).thenReturn(DeleteResult.acknowledged(0));
+
+        mediaBlobService.release(URL);
+
+        verify(mediaStorage, never()).delete(anyString());
+    }
+
+    @Test
+    void mediaFromBeforeTheRegistryIsOnlyDeletedWhenNoPostUsesIt() {
+        givenBlobsAfterUpdate((MediaBlob) null);
+        when(mediaRepository.isUrlReferenced(URL)).thenReturn(true, false);
+        when(mediaStorage.pathFromUrl(URL)).thenReturn("images/abc.jpg");
+
+        mediaBlobService.release(URL);
+        verify(mediaStorage, never()).delete(anyString());
+
+        mediaBlobService.release(URL);
+        verify(mediaStorage).delete("images/abc.jpg");
+    }
+
+    private void givenBlobsAfterUpdate(MediaBlob first, MediaBlob... rest) {
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(MediaBlob.class))).thenReturn(first, rest);
+    }
+
+    private static MediaBlob blob(long refCount, boolean ready) {
+        MediaBlob blob = new MediaBlob();
+        blob.setId("abc");
+        blob.setPath("images/abc.jpg");
+        blob.setUrl(ready ? URL : null);
+        blob.setRefCount(refCount);
+        blob.setReady(ready);
+        return blob;
+    }
+
+    private static ByteArrayResource content() {
+        return new ByteArrayResource(new byte[] {1, 2, 3});
+    }
+}
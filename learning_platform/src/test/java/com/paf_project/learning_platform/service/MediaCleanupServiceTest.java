@@ -0,0 +1,173 @@
+package com.paf_project.learning_platform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.paf_project.learning_platform.model.MediaBlob;
+import com.paf_project.learning_platform.model.MediaModel;
+import com.paf_project.learning_platform.storage.MediaStorage;
+import com.paf_project.learning_platform.storage.StoredObject;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+@ExtendWith(MockitoExtension.class)
+class MediaCleanupServiceTest {
+
+    private static final String PATH = "images/abc.jpg";
+    private static final String URL = "https://cdn.example/images/abc.jpg";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MediaStorage mediaStorage;
+
+    @InjectMocks
+    private MediaCleanupService mediaCleanupService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(mediaCleanupService, "batchSize", 100);
+        ReflectionTestUtils.setField(mediaCleanupService, "orphanGraceHours", 24L);
+    }
+
+    @Test
+    void objectsYoungerThanTheGracePeriodAreNotConsidered() {
+        givenStoredObjects(new StoredObject(PATH, Instant.now().minus(Duration.ofHours(1))));
+
+        mediaCleanupService.sweepOrphans();
+
+        verify(mongoTemplate, never()).find(any(Query.class), eq(MediaModel.class));
+        verify(mediaStorage, never()).deleteAll(anyCollection());
+    }
+
+    @Test
+    void objectsAPostStillUsesAreKept() {
+        givenOldObject();
+        when(mongoTemplate.find(any(Query.class), eq(MediaModel.class))).thenReturn(List.of(postWith(URL)));
+
+        mediaCleanupService.sweepOrphans();
+
+        verify(mongoTemplate, never()).findAndRemove(any(Query.class), eq(MediaBlob.class));
+        verify(mediaStorage, never()).deleteAll(anyCollection());
+    }
+
+    @Test
+    void staleRegisteredObjectIsDeletedOnlyWithItsEntry() {
+        givenOldObject();
+        when(mongoTemplate.find(any(Query.class), eq(MediaModel.class))).thenReturn(List.of());
+        when(mongoTemplate.find(any(Query.class), eq(MediaBlob.class))).thenReturn(List.of(blob()));
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(MediaBlob.class))).thenReturn(blob());
+
+        mediaCleanupService.sweepOrphans();
+
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndRemove(removed.capture(), eq(MediaBlob.class));
+        Document criteria = removed.getValue().getQueryObject();
+        assertEquals(PATH, criteria.get("path"));
+        assertEquals(new Document("$lte", 0), criteria.get("refCount"));
+        assertEquals(2, criteria.getList("$or", Document.class).size());
+        verify(mediaStorage).deleteAll(List.of(PATH));
+    }
+
+    @Test
+    void entryReferencedAgainDuringTheSweepKeepsItsObject() {
+        givenOldObject();
+        when(mongoTemplate.find(any(Query.class), eq(MediaModel.class))).thenReturn(List.of());
+        when(mongoTemplate.find(any(Query.class), eq(MediaBlob.class))).thenReturn(List.of(blob()));
+        // A concurrent store bumped refCount and lastReferencedAt, so the conditional remove matches nothing
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(MediaBlob.class))).thenReturn(null);
+
+        mediaCleanupService.sweepOrphans();
+
+        verify(mediaStorage, never()).deleteAll(anyCollection());
+    }
+
+    @Test
+    void leakedReferencesAreDroppedOnlyOnStaleEntries() {
+        givenOldObject();
+        when(mongoTemplate.find(any(Query.class), eq(MediaModel.class))).thenReturn(List.of());
+        when(mongoTemplate.find(any(Query.class), eq(MediaBlob.class))).thenReturn(List.of(blob()));
+
+        mediaCleanupService.sweepOrphans();
+
+        ArgumentCaptor<Query> reset = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateFirst(reset.capture(), any(UpdateDefinition.class), eq(MediaBlob.class));
+        assertEquals(new Document("$gt", 0), reset.getValue().getQueryObject().get("refCount"));
+        assertEquals(2, reset.getValue().getQueryObject().getList("$or", Document.class).size());
+    }
+
+    @Test
+    void unregisteredObjectIsCheckedAgainBeforeTheDelete() {
+        givenOldObject();
+        // Unused at the first check, picked up by a post before the delete
+        when(mongoTemplate.find(any(Query.class), eq(MediaModel.class)))
+                .thenReturn(List.of(), List.of(postWith(URL)));
+
+        mediaCleanupService.sweepOrphans();
+
+        verify(mediaStorage, never()).deleteAll(anyCollection());
+    }
+
+    @Test
+    void unregisteredObjectNobodyUsesIsDeleted() {
+        givenOldObject();
+
+        mediaCleanupService.sweepOrphans();
+
+        verify(mongoTemplate, never()).findAndRemove(any(Query.class), eq(MediaBlob.class));
+        verify(mediaStorage).deleteAll(List.of(PATH));
+    }
+
+    private void givenOldObject() {
+        givenStoredObjects(new StoredObject(PATH, Instant.now().minus(Duration.ofDays(3))));
+        when(mediaStorage.urlFor(PATH)).thenReturn(URL);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenStoredObjects(StoredObject... objects) {
+        doAnswer(call -> {
+            if ("images/".equals(call.getArgument(0))) {
+                List.of(objects).forEach(call.<Consumer<StoredObject>>getArgument(1));
+            }
+            return null;
+        }).when(mediaStorage).forEachObject(any(), any(Consumer.class));
+    }
+
+    private static MediaBlob blob() {
+        MediaBlob blob = new MediaBlob();
+        blob.setId("abc");
+        blob.setPath(PATH);
+        blob.setUrl(URL);
+        return blob;
+    }
+
+    private static MediaModel postWith(String url) {
+        MediaModel post = new MediaModel();
+        post.setImageUrls(List.of(url));
+        return post;
+    }
+}
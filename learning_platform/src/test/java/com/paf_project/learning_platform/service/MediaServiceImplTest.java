@@ -0,0 +1,87 @@
+package com.paf_project.learning_platform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.paf_project.learning_platform.model.MediaModel;
+import com.paf_project.learning_platform.repository.MediaRepo;
+
+import java.util.List;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+class MediaServiceImplTest {
+
+    @Mock
+    private MediaRepo mediaRepository;
+
+    @Mock
+    private TimelineService timelineService;
+
+    @Mock
+    private PostCounterService postCounterService;
+
+    @Mock
+    private TrendingService trendingService;
+
+    @Mock
+    private LikeWriteBuffer likeWriteBuffer;
+
+    @Mock
+    private SharedPostResolver sharedPostResolver;
+
+    @InjectMocks
+    private MediaServiceImpl mediaService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bulkShareWritesOneReferencePerDistinctRecipientToTheRootPost() {
+        MediaModel share = new MediaModel();
+        share.setId("share");
+        share.setSharedFromPostId("root");
+        when(mediaRepository.findById("share")).thenReturn(Optional.of(share));
+        when(mediaRepository.insert(anyList())).thenAnswer(call -> call.getArgument(0));
+
+        List<MediaModel> shares = mediaService.sharePostWithMany("share", "alice", List.of("bob", "carol", "bob"));
+
+        ArgumentCaptor<List<MediaModel>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(mediaRepository, times(1)).insert(inserted.capture());
+        assertEquals(List.of("bob", "carol"), inserted.getValue().stream().map(MediaModel::getUserId).toList());
+        inserted.getValue().forEach(post -> {
+            assertEquals("root", post.getSharedFromPostId());
+            assertEquals("alice", post.getSharedByUserId());
+        });
+        assertEquals(2, shares.size());
+        verify(timelineService, times(2)).fanOut(any(MediaModel.class));
+    }
+
+    @Test
+    void feedPageIncludesBufferedLikes() {
+        List<MediaModel> page = List.of(new MediaModel());
+        when(mediaRepository.findLatest(any())).thenReturn(page);
+
+        mediaService.getFeed(null, 10);
+
+        verify(sharedPostResolver).resolve(page);
+        verify(likeWriteBuffer).applyPendingLikes(page);
+    }
+
+    @Test
+    void bulkShareNeedsARecipient() {
+        assertThrows(IllegalArgumentException.class, () -> mediaService.sharePostWithMany("post", "alice", List.of()));
+        verify(mediaRepository, never()).insert(anyList());
+    }
+}
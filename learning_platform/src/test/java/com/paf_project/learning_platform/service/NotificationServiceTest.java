@@ -0,0 +1,114 @@
+package com.paf_project.learning_platform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.paf_project.learning_platform.model.Notification;
+import com.paf_project.learning_platform.repository.NotificationRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationPushService notificationPushService;
+
+    @InjectMocks
+    private NotificationService notificationService;
+
+    @Test
+    void markingAllAsReadReportsHowManyChanged() {
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(Notification.class)))
+                .thenReturn(UpdateResult.acknowledged(7, 4L, null));
+
+        assertEquals(4, notificationService.markAllAsRead("bob"));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateMulti(query.capture(), any(Update.class), eq(Notification.class));
+        assertEquals(new Document("recipientId", "bob").append("isRead", false), query.getValue().getQueryObject());
+    }
+
+    @Test
+    void markingSelectedAsReadIsScopedToTheRecipient() {
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(Notification.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertEquals(1, notificationService.markAsRead("bob", List.of("n1", "n2")));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateMulti(query.capture(), any(Update.class), eq(Notification.class));
+        Document filter = query.getValue().getQueryObject();
+        assertEquals(new Document("$in", List.of("n1", "n2")), filter.get("_id"));
+        assertEquals("bob", filter.get("recipientId"));
+        assertEquals(false, filter.get("isRead"));
+    }
+
+    @Test
+    void noIdsMeansNoWrite() {
+        assertEquals(0, notificationService.markAsRead("bob", List.of()));
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void deletingOldNotificationsReportsHowManyWentAway() {
+        LocalDateTime cutoff = LocalDateTime.of(2026, 10, 1, 0, 0);
+        when(mongoTemplate.remove(any(Query.class), eq(Notification.class))).thenReturn(DeleteResult.acknowledged(12));
+
+        assertEquals(12, notificationService.deleteOlderThan("bob", cutoff));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(query.capture(), eq(Notification.class));
+        assertEquals(new Document("recipientId", "bob").append("createdAt", new Document("$lt", cutoff)),
+                query.getValue().getQueryObject());
+    }
+
+    @Test
+    void coalescedNotificationsAreSummarizedWithTheirActorCount() {
+        Notification exact = coalesced(42, false);
+        Notification capped = coalesced(1000, true);
+        Notification single = coalesced(1, false);
+        when(notificationRepository.findByRecipientIdOrderByCreatedAtDesc("bob")).thenReturn(List.of(exact, capped, single));
+
+        notificationService.getNotifications("bob");
+
+        assertEquals("Alice and 41 others liked your post", exact.getContent());
+        assertEquals("Alice and over 999 others liked your post", capped.getContent());
+        assertEquals("Alice liked your post", single.getContent());
+    }
+
+    private static Notification coalesced(long actorCount, boolean capped) {
+        Notification notification = new Notification();
+        notification.setType("LIKE");
+        notification.setSenderName("Alice");
+        notification.setContent("Alice liked your post");
+        notification.setActorCount(actorCount);
+        notification.setActorCountCapped(capped);
+        return notification;
+    }
+}
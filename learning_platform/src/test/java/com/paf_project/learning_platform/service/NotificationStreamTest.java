@@ -0,0 +1,103 @@
+package com.paf_project.learning_platform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.paf_project.learning_platform.model.Notification;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+class NotificationStreamTest {
+
+    // Runs submitted tasks only when asked, so the test decides when drains happen
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final Executor executor = tasks::add;
+    private final SseEmitter emitter = mock(SseEmitter.class);
+    private final AtomicInteger failures = new AtomicInteger();
+    private final NotificationStream stream = new NotificationStream(emitter, executor, failures::incrementAndGet);
+
+    @Test
+    void writesReachTheClientInTheOrderTheyWereQueued() throws IOException {
+        stream.push(List.of(notification("n1")), 3, 1);
+        stream.heartbeat();
+        stream.push(List.of(notification("n2")), 4, 2);
+
+        assertEquals(1, tasks.size()); // one drain per stream, however many writes are waiting
+        runTasks();
+
+        assertEquals(List.of("notification:n1", "unread-count:{count=3}", "ping", "notification:n2",
+                "unread-count:{count=4}"), sent());
+    }
+
+    @Test
+    void aCountQueriedBeforeOneAlreadySentIsDropped() throws IOException {
+        stream.push(List.of(), 5, 2);
+        stream.push(List.of(notification("n1")), 4, 1);
+        runTasks();
+
+        assertEquals(List.of("unread-count:{count=5}", "notification:n1"), sent());
+    }
+
+    @Test
+    void aFailedWriteClosesTheStreamOnce() throws IOException {
+        doThrow(new IOException("broken pipe")).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+
+        stream.push(List.of(), 1, 1);
+        stream.heartbeat();
+        runTasks();
+        stream.heartbeat();
+        runTasks();
+
+        assertEquals(1, failures.get());
+        verify(emitter, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(emitter).completeWithError(any(IOException.class));
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    // Event name (or comment) and payload of every event sent, in order
+    private List<String> sent() throws IOException {
+        ArgumentCaptor<SseEmitter.SseEventBuilder> events = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(emitter, atLeastOnce()).send(events.capture());
+        return events.getAllValues().stream().map(this::describe).collect(Collectors.toList());
+    }
+
+    private String describe(SseEmitter.SseEventBuilder event) {
+        String text = event.build().stream()
+                .map(part -> part.getData() instanceof Notification notification ? notification.getId()
+                        : part.getData().toString())
+                .collect(Collectors.joining());
+        if (text.startsWith(":ping")) {
+            return "ping";
+        }
+        String name = text.substring("event:".length(), text.indexOf('\n'));
+        return name + ":" + text.substring(text.indexOf("data:") + "data:".length()).trim();
+    }
+
+    private Notification notification(String id) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setRecipientId("bob");
+        return notification;
+    }
+}
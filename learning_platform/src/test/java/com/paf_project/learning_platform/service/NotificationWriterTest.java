@@ -0,0 +1,234 @@
+package com.paf_project.learning_platform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.paf_project.learning_platform.dto.UserSummaryDTO;
+import com.paf_project.learning_platform.model.Notification;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationWriterTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private UserProfileCache userProfileCache;
+
+    @Mock
+    private NotificationPushService notificationPushService;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @InjectMocks
+    private NotificationWriter notificationWriter;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(notificationWriter, "coalesceWindowMinutes", 60L);
+        ReflectionTestUtils.setField(notificationWriter, "recentActors", 5);
+        ReflectionTestUtils.setField(notificationWriter, "maxTrackedActors", 1000);
+        when(userProfileCache.getAll(anyCollection())).thenReturn(Map.of(
+                "alice", new UserSummaryDTO("alice", "Alice", "alice.png", "USER")));
+    }
+
+    // The writer thread is not started, so submit writes on the calling thread
+    @Test
+    @SuppressWarnings("unchecked")
+    void fallbackSavesReuseTheIdsGivenToTheBatchInsert() {
+        Notification follow = notification("FOLLOW");
+        when(mongoTemplate.insert(any(List.class), eq(Notification.class)))
+                .thenThrow(new DuplicateKeyException("E11000"));
+
+        notificationWriter.submit(follow);
+
+        ArgumentCaptor<List<Notification>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(mongoTemplate).insert(inserted.capture(), eq(Notification.class));
+        String id = inserted.getValue().get(0).getId();
+        assertNotNull(id);
+        assertTrue(ObjectId.isValid(id));
+
+        ArgumentCaptor<Notification> saved = ArgumentCaptor.forClass(Notification.class);
+        verify(mongoTemplate, times(1)).save(saved.capture());
+        assertEquals(id, saved.getValue().getId());
+        assertEquals("Alice", saved.getValue().getSenderName());
+        verify(notificationPushService).publish(List.of(follow));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void notificationsThatWereNotStoredAreNotPushed() {
+        when(mongoTemplate.insert(any(List.class), eq(Notification.class)))
+                .thenThrow(new DataAccessResourceFailureException("primary stepped down"));
+        when(mongoTemplate.save(any(Notification.class)))
+                .thenThrow(new DataAccessResourceFailureException("primary stepped down"));
+
+        notificationWriter.submit(notification("FOLLOW"));
+
+        verify(notificationPushService).publish(List.of());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void notificationsThatCouldNotBeStoredAreRetriedByTheWriter() throws InterruptedException {
+        when(mongoTemplate.insert(any(List.class), eq(Notification.class)))
+                .thenThrow(new DataAccessResourceFailureException("primary stepped down"))
+                .thenAnswer(call -> call.getArgument(0));
+        when(mongoTemplate.save(any(Notification.class)))
+                .thenThrow(new DataAccessResourceFailureException("primary stepped down"));
+        startWriter(3);
+
+        notificationWriter.submit(notification("FOLLOW"));
+
+        ArgumentCaptor<List<Notification>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(mongoTemplate, timeout(2000).times(2)).insert(inserted.capture(), eq(Notification.class));
+        assertEquals(inserted.getAllValues().get(0).get(0).getId(), inserted.getAllValues().get(1).get(0).getId());
+        notificationWriter.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void retriesStopAfterTheLastAttempt() throws InterruptedException {
+        when(mongoTemplate.insert(any(List.class), eq(Notification.class)))
+                .thenThrow(new DataAccessResourceFailureException("primary stepped down"));
+        when(mongoTemplate.save(any(Notification.class)))
+                .thenThrow(new DataAccessResourceFailureException("primary stepped down"));
+        startWriter(2);
+
+        notificationWriter.submit(notification("FOLLOW"));
+
+        // The first try and two retries, then nothing more
+        verify(mongoTemplate, after(500).times(3)).insert(any(List.class), eq(Notification.class));
+        notificationWriter.stop();
+    }
+
+    @Test
+    void likesOnOnePostInOneWindowShareAGroup() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Notification.class)).thenReturn(bulkOperations);
+        Notification first = notification("LIKE", "post-1");
+        Notification sameHour = notification("LIKE", "post-1");
+        sameHour.setCreatedAt(first.getCreatedAt().plusMinutes(20));
+        Notification nextHour = notification("LIKE", "post-1");
+        nextHour.setCreatedAt(first.getCreatedAt().plusMinutes(40));
+
+        notificationWriter.submit(first);
+        notificationWriter.submit(sameHour);
+        notificationWriter.submit(nextHour);
+
+        ArgumentCaptor<Query> groups = ArgumentCaptor.forClass(Query.class);
+        verify(bulkOperations, times(3)).upsert(groups.capture(), any(UpdateDefinition.class));
+        String bucket = Long.toString(first.getCreatedAt().toEpochSecond(ZoneOffset.UTC) / 3600);
+        assertEquals(new Document("groupKey", "bob|LIKE|post-1|" + bucket), groups.getAllValues().get(0).getQueryObject());
+        assertEquals(first.getGroupKey(), sameHour.getGroupKey());
+        assertNotEquals(first.getGroupKey(), nextHour.getGroupKey());
+    }
+
+    @Test
+    void userSuppliedValuesAreNotReadAsFieldPaths() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Notification.class)).thenReturn(bulkOperations);
+        when(userProfileCache.getAll(anyCollection())).thenReturn(Map.of(
+                "alice", new UserSummaryDTO("alice", "$recipientId", "$$ROOT", "USER")));
+        Notification comment = notification("COMMENT", "post-1");
+        comment.setContent("$content");
+
+        notificationWriter.submit(comment);
+
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(bulkOperations).upsert(any(Query.class), update.capture());
+        Document set = ((AggregationUpdate) update.getValue()).toPipeline(Aggregation.DEFAULT_CONTEXT).get(0)
+                .get("$set", Document.class);
+        assertEquals(literal("$recipientId"), set.get("senderName"));
+        assertEquals(literal("$$ROOT"), set.get("senderImageUrl"));
+        assertEquals(literal("$content"), set.get("content"));
+        assertEquals(literal("alice"), set.get("senderId"));
+        Document actors = set.get("recentActors", Document.class);
+        Document newest = (Document) actors.getList("$slice", Object.class).get(0);
+        Document actor = new Document("userId", "alice").append("name", "$recipientId").append("imageUrl", "$$ROOT");
+        assertEquals(literal(List.of(actor)), newest.getList("$concatArrays", Object.class).get(0));
+    }
+
+    @Test
+    void onlySendersNotYetTrackedAreCountedWhileTheSetHasRoom() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Notification.class)).thenReturn(bulkOperations);
+
+        notificationWriter.submit(notification("LIKE", "post-1"));
+
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(bulkOperations).upsert(any(Query.class), update.capture());
+        Document set = ((AggregationUpdate) update.getValue()).toPipeline(Aggregation.DEFAULT_CONTEXT).get(0)
+                .get("$set", Document.class);
+        Document tracked = new Document("$ifNull", List.of("$actorIds", List.of()));
+        Document notCounted = new Document("$or", List.of(
+                new Document("$in", List.of(literal("alice"), tracked)),
+                new Document("$gte", List.of(new Document("$size", tracked), 1000))));
+        assertEquals(notCounted, set.get("actorCount", Document.class).getList("$cond", Object.class).get(0));
+        assertEquals(List.of(notCounted, tracked,
+                        new Document("$concatArrays", List.of(tracked, literal(List.of("alice"))))),
+                set.get("actorIds", Document.class).getList("$cond", Object.class));
+        Document capped = set.get("actorCountCapped", Document.class);
+        assertEquals(new Document("$ifNull", List.of("$actorCountCapped", false)), capped.getList("$or", Object.class).get(0));
+    }
+
+    private static Document literal(Object value) {
+        return new Document("$literal", value);
+    }
+
+    private void startWriter(int maxRetries) {
+        ReflectionTestUtils.setField(notificationWriter, "capacity", 10);
+        ReflectionTestUtils.setField(notificationWriter, "batchSize", 10);
+        ReflectionTestUtils.setField(notificationWriter, "flushIntervalMs", 5L);
+        ReflectionTestUtils.setField(notificationWriter, "maxRetries", maxRetries);
+        ReflectionTestUtils.setField(notificationWriter, "retryBackoffMs", 10L);
+        notificationWriter.start();
+    }
+
+    private Notification notification(String type) {
+        return notification(type, null);
+    }
+
+    private Notification notification(String type, String postId) {
+        Notification notification = new Notification();
+        notification.setRecipientId("bob");
+        notification.setSenderId("alice");
+        notification.setType(type);
+        notification.setPostId(postId);
+        notification.setContent("Alice " + type.toLowerCase());
+        notification.setCreatedAt(LocalDateTime.of(2026, 10, 18, 12, 30));
+        return notification;
+    }
+}
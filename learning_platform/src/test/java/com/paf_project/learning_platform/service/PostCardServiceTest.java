@@ -0,0 +1,148 @@
+package com.paf_project.learning_platform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.paf_project.learning_platform.dto.PostCardDTO;
+import com.paf_project.learning_platform.dto.UserSummaryDTO;
+import com.paf_project.learning_platform.model.MediaModel;
+import com.paf_project.learning_platform.model.SavedPost;
+import com.paf_project.learning_platform.repository.MediaRepo;
+import com.paf_project.learning_platform.repository.SavedPostRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+@ExtendWith(MockitoExtension.class)
+class PostCardServiceTest {
+
+    @Mock
+    private MediaRepo mediaRepository;
+
+    @Mock
+    private UserProfileCache userProfileCache;
+
+    @Mock
+    private LikedPostsCache likedPostsCache;
+
+    @Mock
+    private SavedPostRepository savedPostRepository;
+
+    @Mock
+    private SharedPostResolver sharedPostResolver;
+
+    @Mock
+    private LikeWriteBuffer likeWriteBuffer;
+
+    @InjectMocks
+    private PostCardService postCardService;
+
+    @Test
+    void pageOfCardsCostsOneQueryPerSourceWhateverItsSize() {
+        List<MediaModel> posts = IntStream.range(0, 50)
+                .mapToObj(i -> post("p" + i, "u" + i))
+                .collect(Collectors.toList());
+        givenPosts(posts);
+        when(userProfileCache.getAll(anyCollection())).thenReturn(users("u0"));
+        when(likedPostsCache.likedAmong(anyString(), anyCollection())).thenReturn(Set.of("p1"));
+        when(savedPostRepository.findByUserIdAndPostIdIn(anyString(), anyCollection())).thenReturn(List.of(saved("p2")));
+
+        List<String> ids = posts.stream().map(MediaModel::getId).collect(Collectors.toList());
+        List<PostCardDTO> cards = postCardService.getCards(ids, "viewer");
+
+        assertEquals(50, cards.size());
+        verify(mediaRepository, times(1)).findAllById(anyCollection());
+        verify(sharedPostResolver, times(1)).resolve(anyList());
+        verify(userProfileCache, times(1)).getAll(anyCollection());
+        verify(likedPostsCache, times(1)).likedAmong(anyString(), anyCollection());
+        verify(savedPostRepository, times(1)).findByUserIdAndPostIdIn(anyString(), anyCollection());
+        verify(likeWriteBuffer).applyPendingLikes(posts);
+        verifyNoMoreInteractions(mediaRepository, userProfileCache, likedPostsCache, savedPostRepository);
+
+        assertEquals("u0", cards.get(0).getAuthor().getId());
+        assertTrue(cards.get(1).isHasLiked());
+        assertTrue(cards.get(2).isSaved());
+        assertFalse(cards.get(3).isHasLiked());
+    }
+
+    @Test
+    void cardsFollowTheRequestedOrderAndSkipUnknownIds() {
+        givenPosts(List.of(post("b", "u1"), post("a", "u1")));
+        when(userProfileCache.getAll(anyCollection())).thenReturn(users("u1"));
+
+        List<PostCardDTO> cards = postCardService.getCards(List.of("a", "missing", "b"), null);
+
+        assertEquals(List.of("a", "b"), cards.stream().map(card -> card.getPost().getId()).collect(Collectors.toList()));
+        verify(likedPostsCache, never()).likedAmong(any(), anyCollection());
+        verify(savedPostRepository, never()).findByUserIdAndPostIdIn(any(), anyCollection());
+    }
+
+    @Test
+    void shareShowsTheOriginalAuthorAndTheSharer() {
+        MediaModel original = post("root", "author");
+        MediaModel share = post("share", "recipient");
+        share.setSharedFromPostId("root");
+        share.setSharedByUserId("sharer");
+        share.setOriginalPost(original);
+        givenPosts(List.of(share));
+        when(userProfileCache.getAll(anyCollection())).thenReturn(users("author", "sharer"));
+
+        PostCardDTO card = postCardService.getCards(List.of("share"), null).get(0);
+
+        assertEquals("author", card.getAuthor().getId());
+        assertEquals("sharer", card.getSharedBy().getId());
+    }
+
+    @Test
+    void oversizedRequestIsRejected() {
+        List<String> ids = new ArrayList<>();
+        IntStream.range(0, 101).forEach(i -> ids.add("p" + i));
+
+        assertThrows(IllegalArgumentException.class, () -> postCardService.getCards(ids, "viewer"));
+        verify(mediaRepository, never()).findAllById(anyCollection());
+    }
+
+    private void givenPosts(List<MediaModel> posts) {
+        when(mediaRepository.findAllById(anyCollection())).thenReturn(posts);
+        when(sharedPostResolver.resolve(anyList())).thenAnswer(call -> call.getArgument(0));
+    }
+
+    private static MediaModel post(String id, String userId) {
+        MediaModel post = new MediaModel();
+        post.setId(id);
+        post.setUserId(userId);
+        return post;
+    }
+
+    private static Map<String, UserSummaryDTO> users(String... ids) {
+        return Stream.of(ids).collect(Collectors.toMap(id -> id, id -> new UserSummaryDTO(id, "name-" + id, null, "USER")));
+    }
+
+    private static SavedPost saved(String postId) {
+        SavedPost saved = new SavedPost();
+        saved.setPostId(postId);
+        return saved;
+    }
+}
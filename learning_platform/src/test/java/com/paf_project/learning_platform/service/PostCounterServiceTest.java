@@ -0,0 +1,120 @@
+package com.paf_project.learning_platform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.paf_project.learning_platform.model.MediaModel;
+
+import java.util.Arrays;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class PostCounterServiceTest {
+
+    private static final String POST_ID = new ObjectId().toHexString();
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @InjectMocks
+    private PostCounterService postCounterService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(postCounterService, "reconcileBatchSize", 100);
+    }
+
+    @Test
+    void driftedCounterIsOverwrittenOnlyIfNothingChangedSinceTheRead() {
+        MediaModel post = post(3, 1);
+        when(mongoTemplate.find(any(Query.class), eq(MediaModel.class))).thenReturn(List.of(post), List.of());
+        givenCounts("likes", 5);
+        givenCounts("comments", 1);
+        givenCounts("savedposts", 0);
+        givenCounts("posts", 0);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MediaModel.class)).thenReturn(bulkOperations);
+
+        postCounterService.reconcile();
+
+        ArgumentCaptor<Query> guard = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> fix = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations).updateOne(guard.capture(), fix.capture());
+        verify(bulkOperations).execute();
+
+        List<Document> expected = guard.getValue().getQueryObject().getList("$and", Document.class);
+        assertEquals(new Document("likeCount", 3L), expected.get(0));
+        assertEquals(new Document("commentCount", 1L), expected.get(1));
+        // A zero read also matches posts that predate the counter fields
+        assertEquals(new Document("saveCount", new Document("$in", Arrays.asList(0L, 0, null))),
+                expected.get(2));
+
+        Document set = fix.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(5L, set.get("likeCount"));
+        assertEquals(1L, set.get("commentCount"));
+    }
+
+    @Test
+    void countersThatMatchTheSourceAreNotWritten() {
+        when(mongoTemplate.find(any(Query.class), eq(MediaModel.class))).thenReturn(List.of(post(2, 0)), List.of());
+        givenCounts("likes", 2);
+        givenCounts("comments", 0);
+        givenCounts("savedposts", 0);
+        givenCounts("posts", 0);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MediaModel.class)).thenReturn(bulkOperations);
+
+        postCounterService.reconcile();
+
+        verify(bulkOperations, never()).updateOne(any(Query.class), any(Update.class));
+        verify(bulkOperations, never()).execute();
+    }
+
+    @Test
+    void emptyCollectionRunsNoCounts() {
+        when(mongoTemplate.find(any(Query.class), eq(MediaModel.class))).thenReturn(List.of());
+
+        postCounterService.reconcile();
+
+        verify(mongoTemplate, never()).aggregate(any(Aggregation.class), anyString(), eq(Document.class));
+    }
+
+    private void givenCounts(String collection, long count) {
+        List<Document> rows = count == 0
+                ? List.of()
+                : List.of(new Document("_id", POST_ID).append("count", count));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(collection), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(rows, new Document()));
+    }
+
+    private static MediaModel post(long likeCount, long commentCount) {
+        MediaModel post = new MediaModel();
+        post.setId(POST_ID);
+        post.setLikeCount(likeCount);
+        post.setCommentCount(commentCount);
+        return post;
+    }
+}
@@ -0,0 +1,34 @@
+package com.paf_project.learning_platform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import com.paf_project.learning_platform.dto.SearchPageDTO;
+import com.paf_project.learning_platform.model.MediaModel;
+
+class PostSearchServiceTest {
+
+    private final PostSearchService postSearchService = new PostSearchService();
+
+    @Test
+    void pageNumbersThatWouldOverflowTheOffsetAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> postSearchService.search("java", 214748365, 10));
+        assertThrows(IllegalArgumentException.class, () -> postSearchService.search("java", Integer.MAX_VALUE, 50));
+    }
+
+    @Test
+    void pagesUpToTheResultLimitAreServed() {
+        MediaModel post = new MediaModel();
+        post.setId("post-1");
+        post.setDescription("java");
+        postSearchService.index(post);
+
+        SearchPageDTO first = postSearchService.search("java", 0, 10);
+        SearchPageDTO last = postSearchService.search("java", 99, 10);
+
+        assertEquals(1, first.getTotal());
+        assertEquals(0, last.getHits().size());
+    }
+}
@@ -0,0 +1,149 @@
+package com.paf_project.learning_platform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.paf_project.learning_platform.model.Notification;
+import com.paf_project.learning_platform.model.ProfilePropagationTask;
+
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class ProfilePropagationServiceTest {
+
+    private static final int NOTIFICATION_ACTORS_STAGE = 5;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private ProfilePropagationService profilePropagationService;
+
+    private final ObjectId firstComment = new ObjectId();
+    private final ObjectId secondComment = new ObjectId();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(profilePropagationService, "chunkSize", 2);
+        ReflectionTestUtils.setField(profilePropagationService, "chunkPauseMs", 0L);
+        ReflectionTestUtils.setField(profilePropagationService, "leaseMinutes", 10L);
+    }
+
+    @Test
+    void eachChunkIsOneUpdateAndTheRunCompletes() {
+        givenOneChunkOfComments();
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(ProfilePropagationTask.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        profilePropagationService.processQueue();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(1)).updateMulti(any(Query.class), update.capture(), eq("Comment"));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals("Alicia", set.get("userName"));
+        assertEquals("new.png", set.get("userImage"));
+        // The second comments query resumes after the last key of the first chunk
+        verify(mongoTemplate).find(argThat(query -> query != null && query.getQueryObject().containsKey("_id")
+                && secondComment.equals(query.getQueryObject().get("_id", Document.class).get("$gt"))),
+                eq(Document.class), eq("Comment"));
+        verify(mongoTemplate).updateFirst(any(Query.class),
+                argThat(done -> done != null && done.getUpdateObject().get("$set", Document.class).containsKey("completedAt")),
+                eq(ProfilePropagationTask.class));
+    }
+
+    @Test
+    void aSupersededRunStopsAfterItsProgressIsRejected() {
+        givenOneChunkOfComments();
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(ProfilePropagationTask.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        profilePropagationService.processQueue();
+
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Document.class), anyString());
+        verify(mongoTemplate, times(1)).updateFirst(any(Query.class), any(Update.class), eq(ProfilePropagationTask.class));
+    }
+
+    @Test
+    void renamesTheUserInsideCoalescedNotificationActors() {
+        ProfilePropagationTask task = new ProfilePropagationTask();
+        task.setId("task-1");
+        task.setUserId("alice");
+        task.setName("Alice B");
+        task.setImageUrl("alice-2.png");
+        task.setStage(NOTIFICATION_ACTORS_STAGE);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ProfilePropagationTask.class))).thenReturn(task, (ProfilePropagationTask) null);
+        when(mongoTemplate.getCollectionName(Notification.class)).thenReturn("notifications");
+        ObjectId notificationId = new ObjectId();
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("notifications")))
+                .thenReturn(List.of(new Document("_id", notificationId)), List.of());
+        when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq("notifications")))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(ProfilePropagationTask.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        profilePropagationService.processQueue();
+
+        ArgumentCaptor<Query> chunk = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, atLeastOnce())
+                .find(chunk.capture(), eq(Document.class), eq("notifications"));
+        assertEquals(new Document("recentActors.userId", "alice"), chunk.getAllValues().get(0).getQueryObject());
+
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).updateMulti(any(Query.class), update.capture(), eq("notifications"));
+        assertEquals(new Document("$set", new Document("recentActors.$[a].name", "Alice B")
+                        .append("recentActors.$[a].imageUrl", "alice-2.png")),
+                update.getValue().getUpdateObject());
+        assertEquals(List.of(new Document("a.userId", "alice")), update.getValue().getArrayFilters().stream()
+                .map(UpdateDefinition.ArrayFilter::asDocument)
+                .toList());
+    }
+
+    private void givenOneChunkOfComments() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(ProfilePropagationTask.class))).thenReturn(task(), (ProfilePropagationTask) null);
+        when(mongoTemplate.getCollectionName(any(Class.class)))
+                .thenAnswer(call -> ((Class<?>) call.getArgument(0)).getSimpleName());
+        // One full chunk of comments, then nothing left anywhere
+        List<Document> chunk = List.of(new Document("_id", firstComment), new Document("_id", secondComment));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), anyString())).thenAnswer(call ->
+                "Comment".equals(call.getArgument(2)) && !call.getArgument(0, Query.class).getQueryObject().containsKey("_id")
+                        ? chunk : List.of());
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq("Comment")))
+                .thenReturn(UpdateResult.acknowledged(2, 2L, null));
+    }
+
+    private static ProfilePropagationTask task() {
+        ProfilePropagationTask task = new ProfilePropagationTask();
+        task.setId("task-1");
+        task.setUserId("alice");
+        task.setName("Alicia");
+        task.setImageUrl("new.png");
+        task.setVersion(3);
+        return task;
+    }
+}
@@ -0,0 +1,69 @@
+package com.paf_project.learning_platform.service;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.paf_project.learning_platform.model.MediaModel;
+import com.paf_project.learning_platform.repository.MediaRepo;
+
+import java.util.List;
+import java.util.Set;
+
+@ExtendWith(MockitoExtension.class)
+class SharedPostResolverTest {
+
+    @Mock
+    private MediaRepo mediaRepository;
+
+    @InjectMocks
+    private SharedPostResolver sharedPostResolver;
+
+    @Test
+    void attachesOriginalsWithOneLookupPerPage() {
+        MediaModel original = post("original", null);
+        MediaModel first = post("share-1", "original");
+        MediaModel second = post("share-2", "original");
+        MediaModel plain = post("plain", null);
+        when(mediaRepository.findAllById(Set.of("original"))).thenReturn(List.of(original));
+
+        sharedPostResolver.resolve(List.of(first, plain, second));
+
+        assertSame(original, first.getOriginalPost());
+        assertSame(original, second.getOriginalPost());
+        assertNull(plain.getOriginalPost());
+    }
+
+    @Test
+    void pagesWithoutSharesSkipTheLookup() {
+        sharedPostResolver.resolve(List.of(post("plain", null)));
+
+        verify(mediaRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void sharesOfDeletedPostsResolveToNothing() {
+        MediaModel share = post("share", "deleted");
+        when(mediaRepository.findAllById(Set.of("deleted"))).thenReturn(List.of());
+
+        sharedPostResolver.resolve(List.of(share));
+
+        assertNull(share.getOriginalPost());
+    }
+
+    private static MediaModel post(String id, String sharedFromPostId) {
+        MediaModel post = new MediaModel();
+        post.setId(id);
+        post.setSharedFromPostId(sharedFromPostId);
+        return post;
+    }
+}
@@ -0,0 +1,188 @@
+package com.paf_project.learning_platform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.paf_project.learning_platform.dto.CursorPageDTO;
+import com.paf_project.learning_platform.model.Follow;
+import com.paf_project.learning_platform.model.MediaModel;
+import com.paf_project.learning_platform.model.TimelineEntry;
+import com.paf_project.learning_platform.model.User;
+import com.paf_project.learning_platform.repository.FollowRepository;
+import com.paf_project.learning_platform.repository.MediaRepo;
+import com.paf_project.learning_platform.repository.TimelineRepository;
+import com.paf_project.learning_platform.repository.UserRepository;
+import com.paf_project.learning_platform.util.PageCursor;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+@ExtendWith(MockitoExtension.class)
+class TimelineServiceTest {
+
+    @Mock
+    private TimelineRepository timelineRepository;
+
+    @Mock
+    private FollowRepository followRepository;
+
+    @Mock
+    private MediaRepo mediaRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private SharedPostResolver sharedPostResolver;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @InjectMocks
+    private TimelineService timelineService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(timelineService, "maxFanoutFollowers", 10_000L);
+        ReflectionTestUtils.setField(timelineService, "fanoutBatchSize", 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void fanOutWalksFollowersByIdKeyset() {
+        givenBulkInserts();
+        MediaModel post = post("author", 1);
+        Follow first = follow("a");
+        Follow second = follow("b");
+        Follow third = follow("c");
+        when(followRepository.findFirstFollowers(eq("author"), any(Pageable.class))).thenReturn(List.of(first, second));
+        when(followRepository.findFollowersAfter(eq("author"), eq(new ObjectId(second.getId())), any(Pageable.class)))
+                .thenReturn(List.of(third));
+
+        timelineService.fanOut(post);
+
+        ArgumentCaptor<List<TimelineEntry>> batches = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations, times(3)).insert(batches.capture());
+        assertEquals(List.of(List.of("author"), List.of("a", "b"), List.of("c")), batches.getAllValues().stream()
+                .map(batch -> batch.stream().map(TimelineEntry::getOwnerId).toList())
+                .toList());
+        // A short page is the last one; no extra round trip to find out
+        verify(followRepository, times(1)).findFollowersAfter(any(), any(), any());
+    }
+
+    @Test
+    void repeatedFanOutSkipsRowsThatAlreadyExist() {
+        givenBulkInserts();
+        when(bulkOperations.execute()).thenThrow(bulkFailure(11000));
+        when(followRepository.findFirstFollowers(eq("author"), any(Pageable.class))).thenReturn(List.of());
+
+        timelineService.fanOut(post("author", 1));
+
+        verify(bulkOperations).execute();
+    }
+
+    @Test
+    void otherInsertErrorsStillFail() {
+        givenBulkInserts();
+        when(bulkOperations.execute()).thenThrow(bulkFailure(121));
+
+        assertThrows(BulkOperationException.class, () -> timelineService.fanOut(post("author", 1)));
+        verify(followRepository, never()).findFirstFollowers(any(), any());
+    }
+
+    @Test
+    void timelineMergesPulledAuthorsNewestFirstWithoutDuplicates() {
+        User star = new User();
+        star.setId("star");
+        when(userRepository.findByHighFanoutTrue()).thenReturn(List.of(star));
+        timelineService.loadHighFanoutAuthors();
+        MediaModel newest = post("star", 3);
+        MediaModel middle = post("star", 2);
+        MediaModel oldest = post("friend", 1);
+        when(timelineRepository.findLatest(eq("me"), any(Pageable.class))).thenReturn(List.of(
+                entry("me", newest), entry("me", oldest)));
+        when(followRepository.findByFollowerIdAndFollowingIdIn(eq("me"), any())).thenReturn(List.of(new Follow("me", "star")));
+        when(mediaRepository.findLatestByUserIds(eq(List.of("star")), any(Pageable.class)))
+                .thenReturn(List.of(newest, middle));
+
+        CursorPageDTO<MediaModel> page = timelineService.getTimeline("me", null, 2);
+
+        assertEquals(List.of(newest.getId(), middle.getId()), page.getItems().stream().map(MediaModel::getId).toList());
+        PageCursor next = PageCursor.decode(page.getNextCursor());
+        assertEquals(middle.getId(), next.getId());
+        assertEquals(middle.getCreatedAt(), next.getCreatedAt());
+    }
+
+    @Test
+    void lastTimelinePageHasNoCursor() {
+        MediaModel only = post("friend", 1);
+        when(timelineRepository.findLatest(eq("me"), any(Pageable.class))).thenReturn(List.of(entry("me", only)));
+        when(mediaRepository.findAllById(List.of(only.getId()))).thenReturn(List.of(only));
+
+        CursorPageDTO<MediaModel> page = timelineService.getTimeline("me", null, 2);
+
+        assertEquals(List.of(only), page.getItems());
+        assertNull(page.getNextCursor());
+    }
+
+    private void givenBulkInserts() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TimelineEntry.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+    }
+
+    private BulkOperationException bulkFailure(int code) {
+        return new BulkOperationException("bulk write failed", new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()),
+                List.of(new BulkWriteError(code, "failed", new BsonDocument(), 0)),
+                null, new ServerAddress(), Set.of()));
+    }
+
+    private MediaModel post(String userId, long createdAt) {
+        MediaModel post = new MediaModel();
+        post.setId(new ObjectId().toHexString());
+        post.setUserId(userId);
+        post.setCreatedAt(new Date(createdAt));
+        return post;
+    }
+
+    private TimelineEntry entry(String ownerId, MediaModel post) {
+        return new TimelineEntry(ownerId, post);
+    }
+
+    private Follow follow(String followerId) {
+        Follow follow = new Follow(followerId, "author");
+        follow.setId(new ObjectId().toHexString());
+        return follow;
+    }
+}
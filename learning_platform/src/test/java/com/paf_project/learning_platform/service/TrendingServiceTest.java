@@ -0,0 +1,149 @@
+package com.paf_project.learning_platform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.paf_project.learning_platform.dto.TrendingPostDTO;
+import com.paf_project.learning_platform.model.TrendingScore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+class TrendingServiceTest {
+
+    private static final Duration HALF_LIFE = Duration.ofHours(6);
+
+    private final TrendingService trendingService = new TrendingService();
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(trendingService, "clock", clock);
+        ReflectionTestUtils.setField(trendingService, "landmark", clock.millis());
+        ReflectionTestUtils.setField(trendingService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(trendingService, "halfLifeHours", 6.0);
+        ReflectionTestUtils.setField(trendingService, "topK", 100);
+        ReflectionTestUtils.setField(trendingService, "minScore", 0.05);
+    }
+
+    @Test
+    void eventsAreWeightedByKind() {
+        trendingService.record("liked", TrendingService.Event.LIKE, 3);
+        trendingService.record("discussed", TrendingService.Event.COMMENT);
+        trendingService.record("discussed", TrendingService.Event.LIKE);
+
+        List<TrendingPostDTO> trending = refreshedTrending();
+
+        assertEquals(List.of("discussed", "liked"), trending.stream().map(TrendingPostDTO::getPostId).toList());
+        assertEquals(4.0, trending.get(0).getScore(), 1e-9);
+        assertEquals(3.0, trending.get(1).getScore(), 1e-9);
+    }
+
+    @Test
+    void olderEngagementHalvesEveryHalfLife() {
+        trendingService.record("old", TrendingService.Event.COMMENT);
+        clock.advance(HALF_LIFE);
+        trendingService.record("new", TrendingService.Event.LIKE, 2);
+
+        List<TrendingPostDTO> trending = refreshedTrending();
+
+        assertEquals("new", trending.get(0).getPostId());
+        assertEquals(2.0, trending.get(0).getScore(), 1e-9);
+        assertEquals(1.5, trending.get(1).getScore(), 1e-9);
+    }
+
+    @Test
+    void checkpointRebasesWithoutChangingScores() {
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(TrendingScore.class)))
+                .thenReturn(mock(BulkOperations.class));
+        trendingService.record("post", TrendingService.Event.COMMENT);
+        clock.advance(HALF_LIFE);
+
+        trendingService.checkpoint();
+        trendingService.record("post", TrendingService.Event.LIKE);
+
+        assertEquals(2.5, refreshedTrending().get(0).getScore(), 1e-9);
+    }
+
+    @Test
+    void undoingEveryEventRemovesThePost() {
+        trendingService.record("post", TrendingService.Event.LIKE);
+        trendingService.record("post", TrendingService.Event.LIKE, -1);
+
+        assertTrue(refreshedTrending().isEmpty());
+    }
+
+    @Test
+    void undoForAPostWithNoScoreIsNotStored() {
+        // e.g. an unlike after the post had already decayed out of the map
+        trendingService.record("post", TrendingService.Event.LIKE, -1);
+        trendingService.record("post", TrendingService.Event.LIKE);
+
+        assertEquals(1.0, refreshedTrending().get(0).getScore(), 1e-9);
+    }
+
+    @Test
+    void postsThatDecayBelowTheMinimumAreDropped() {
+        trendingService.record("post", TrendingService.Event.SHARE);
+        clock.advance(HALF_LIFE.multipliedBy(7)); // 5 / 128 < 0.05
+
+        assertTrue(refreshedTrending().isEmpty());
+    }
+
+    @Test
+    void onlyTheTopKAreKept() {
+        ReflectionTestUtils.setField(trendingService, "topK", 2);
+        trendingService.record("a", TrendingService.Event.LIKE, 1);
+        trendingService.record("b", TrendingService.Event.LIKE, 2);
+        trendingService.record("c", TrendingService.Event.LIKE, 3);
+
+        assertEquals(List.of("c", "b"), refreshedTrending().stream().map(TrendingPostDTO::getPostId).toList());
+    }
+
+    private List<TrendingPostDTO> refreshedTrending() {
+        trendingService.refreshSnapshot();
+        return trendingService.getTrending(10);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.paf_project.learning_platform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.paf_project.learning_platform.dto.UserSummaryDTO;
+import com.paf_project.learning_platform.model.User;
+import com.paf_project.learning_platform.repository.UserRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+class UserProfileCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserProfileCache userProfileCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userProfileCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(userProfileCache, "ttlMinutes", 10L);
+        userProfileCache.init();
+    }
+
+    @Test
+    void invalidatedProfilesAreLoadedAgain() {
+        when(userRepository.findById("alice")).thenReturn(Optional.of(user("alice", "Alice")),
+                Optional.of(user("alice", "Alicia")));
+
+        assertEquals("Alice", userProfileCache.get("alice").map(UserSummaryDTO::getName).orElseThrow());
+        assertEquals("Alice", userProfileCache.get("alice").map(UserSummaryDTO::getName).orElseThrow());
+        userProfileCache.invalidate("alice");
+
+        assertEquals("Alicia", userProfileCache.get("alice").map(UserSummaryDTO::getName).orElseThrow());
+        verify(userRepository, times(2)).findById("alice");
+    }
+
+    @Test
+    void unknownUsersAreNotCached() {
+        when(userRepository.findById("ghost")).thenReturn(Optional.empty());
+
+        assertFalse(userProfileCache.get("ghost").isPresent());
+        assertFalse(userProfileCache.get("ghost").isPresent());
+
+        verify(userRepository, times(2)).findById("ghost");
+    }
+
+    @Test
+    void batchLoadsOnlyTheMisses() {
+        when(userRepository.findById("alice")).thenReturn(Optional.of(user("alice", "Alice")));
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(user("bob", "Bob")));
+        userProfileCache.get("alice");
+
+        Map<String, UserSummaryDTO> users = userProfileCache.getAll(List.of("alice", "bob"));
+
+        assertEquals("Alice", users.get("alice").getName());
+        assertEquals("Bob", users.get("bob").getName());
+        verify(userRepository).findAllById(List.of("bob"));
+    }
+
+    private static User user(String id, String name) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        return user;
+    }
+}
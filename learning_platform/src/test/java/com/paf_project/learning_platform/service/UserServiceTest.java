@@ -0,0 +1,80 @@
+package com.paf_project.learning_platform.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import com.paf_project.learning_platform.model.User;
+import com.paf_project.learning_platform.repository.UserRepository;
+
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserProfileCache userProfileCache;
+
+    @Mock
+    private ProfilePropagationService profilePropagationService;
+
+    @InjectMocks
+    private UserService userService;
+
+    @Test
+    void updatingAProfileInvalidatesItsCachedCopyAfterSaving() {
+        User existing = new User();
+        existing.setId("alice");
+        existing.setName("Alice");
+        when(userRepository.findById("alice")).thenReturn(Optional.of(existing));
+        when(userRepository.save(any(User.class))).thenAnswer(call -> call.getArgument(0));
+        User edit = new User();
+        edit.setName("Alicia");
+
+        assertEquals("Alicia", userService.updateUser("alice", edit).getBody().getName());
+
+        InOrder order = inOrder(userRepository, userProfileCache);
+        order.verify(userRepository).save(existing);
+        order.verify(userProfileCache).invalidate("alice");
+        verify(profilePropagationService).enqueue(existing);
+    }
+
+    @Test
+    void anEmailOnlyEditQueuesNoPropagation() {
+        User existing = new User();
+        existing.setId("alice");
+        existing.setName("Alice");
+        when(userRepository.findById("alice")).thenReturn(Optional.of(existing));
+        when(userRepository.save(any(User.class))).thenAnswer(call -> call.getArgument(0));
+        User edit = new User();
+        edit.setName("Alice");
+        edit.setEmail("alice@example.com");
+
+        userService.updateUser("alice", edit);
+
+        verify(profilePropagationService, never()).enqueue(any());
+    }
+
+    @Test
+    void unknownUsersLeaveTheCacheAlone() {
+        when(userRepository.findById("ghost")).thenReturn(Optional.empty());
+
+        assertEquals(HttpStatus.NOT_FOUND, userService.updateUser("ghost", new User()).getStatusCode());
+
+        verify(userProfileCache, never()).invalidate(any());
+    }
+}
@@ -0,0 +1,53 @@
+package com.paf_project.learning_platform.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class LocalMediaStorageTest {
+
+    @TempDir
+    private Path rootDir;
+
+    private final LocalMediaStorage storage = new LocalMediaStorage();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(storage, "rootDir", rootDir);
+        ReflectionTestUtils.setField(storage, "baseUrl", "http://localhost:8070");
+    }
+
+    @Test
+    void uploadedFilesAreServedAndDeletedByPath() throws IOException {
+        byte[] bytes = "png".getBytes(StandardCharsets.UTF_8);
+
+        String url = storage.upload("images/a.png", "image/png", new ByteArrayInputStream(bytes));
+
+        assertEquals("http://localhost:8070/media/images/a.png", url);
+        assertEquals("images/a.png", storage.pathFromUrl(url));
+        assertArrayEquals(bytes, Files.readAllBytes(rootDir.resolve("images/a.png")));
+
+        storage.delete(storage.pathFromUrl(url));
+        assertFalse(Files.exists(rootDir.resolve("images/a.png")));
+    }
+
+    @Test
+    void pathsCannotEscapeTheRoot() {
+        ByteArrayInputStream content = new ByteArrayInputStream(new byte[] {1});
+
+        assertThrows(IllegalArgumentException.class, () -> storage.upload("../outside.png", "image/png", content));
+        assertThrows(IllegalArgumentException.class, () -> storage.delete("images/../../outside.png"));
+    }
+}
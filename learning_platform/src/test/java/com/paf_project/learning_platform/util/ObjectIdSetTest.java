@@ -0,0 +1,72 @@
+package com.paf_project.learning_platform.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+class ObjectIdSetTest {
+
+    @Test
+    void addContainsAndRemove() {
+        ObjectIdSet set = new ObjectIdSet(4);
+        ObjectId id = new ObjectId();
+
+        assertTrue(set.add(id));
+        assertFalse(set.add(id));
+        assertTrue(set.contains(id));
+        assertFalse(set.contains(new ObjectId()));
+        assertTrue(set.remove(id));
+        assertFalse(set.remove(id));
+        assertFalse(set.contains(id));
+        assertEquals(0, set.size());
+    }
+
+    @Test
+    void keepsEveryIdAcrossResizes() {
+        ObjectIdSet set = new ObjectIdSet(1);
+        List<ObjectId> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ObjectId id = new ObjectId();
+            ids.add(id);
+            set.add(id);
+        }
+
+        assertEquals(ids.size(), set.size());
+        assertTrue(ids.stream().allMatch(set::contains));
+    }
+
+    // Removals shift later entries of a probe chain back; none of them may become unreachable
+    @Test
+    void behavesLikeAHashSetUnderRandomAddsAndRemoves() {
+        Random random = new Random(42);
+        List<ObjectId> universe = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            // Sequential ids from one process differ only in the counter bytes, the common real case
+            universe.add(new ObjectId());
+        }
+        ObjectIdSet set = new ObjectIdSet(16);
+        Set<ObjectId> expected = new HashSet<>();
+
+        for (int step = 0; step < 50_000; step++) {
+            ObjectId id = universe.get(random.nextInt(universe.size()));
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(id), set.remove(id));
+            } else {
+                assertEquals(expected.add(id), set.add(id));
+            }
+            assertEquals(expected.size(), set.size());
+        }
+        for (ObjectId id : universe) {
+            assertEquals(expected.contains(id), set.contains(id));
+        }
+    }
+}
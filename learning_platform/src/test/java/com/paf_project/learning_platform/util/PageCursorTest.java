@@ -0,0 +1,46 @@
+package com.paf_project.learning_platform.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+class PageCursorTest {
+
+    @Test
+    void encodedCursorRoundTrips() {
+        Date createdAt = new Date(1_700_000_000_123L);
+        String id = new ObjectId().toHexString();
+
+        PageCursor decoded = PageCursor.decode(PageCursor.of(createdAt, id).encode());
+
+        assertEquals(createdAt, decoded.getCreatedAt());
+        assertEquals(id, decoded.getId());
+        assertEquals(new ObjectId(id), decoded.getObjectId());
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        String token = PageCursor.of(new Date(), new ObjectId().toHexString()).encode();
+
+        assertFalse(token.contains("+") || token.contains("/") || token.contains("="));
+    }
+
+    @Test
+    void malformedTokensAreRejectedAsBadInput() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(token("no-separator")));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(token("soon:" + new ObjectId())));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(token("1700000000000:not-an-id")));
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}